@@ -0,0 +1,34 @@
+package com.expensetracker.auth;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal built from access-token claims alone, so authenticated requests
+ * need no user-table lookup. Controllers receive it as a plain method argument.
+ * <p>
+ * Deliberately not a {@link java.security.Principal}: Spring MVC resolves those
+ * parameters itself, to the {@code Authentication}, before custom resolvers run.
+ */
+public record AuthenticatedUser(Long id, String username, List<String> roles) implements AuthenticatedPrincipal {
+
+    public static final String ROLE_USER = "ROLE_USER";
+
+    public static AuthenticatedUser from(VerifiedToken token) {
+        return new AuthenticatedUser(token.userId(), token.subject(), token.roles());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
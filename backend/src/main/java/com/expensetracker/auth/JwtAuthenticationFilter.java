@@ -1,10 +1,5 @@
 package com.expensetracker.auth;
 
-import com.expensetracker.model.Users;
-import com.expensetracker.repository.UserRepository;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,20 +9,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
-    String username = null;
+    private final TokenRevocations revocations;
 
     @Override
     protected void doFilterInternal(
@@ -43,34 +35,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        try {
-            username = jwtService.extractUsername(jwt);
-        } catch (SignatureException e) {
-            log.debug("JWT signature validation failed: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.debug("JWT is malformed: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.debug("JWT is expired: {}", e.getMessage());
-        } catch (Exception e) {
-            log.debug("JWT parsing failed: {}", e.getMessage());
+        // Signature and expiry are checked here, once; the principal is built from the
+        // claims without touching the user table
+        Optional<VerifiedToken> verified = jwtService.verify(jwt)
+                .filter(token -> token.userId() != null)
+                .filter(token -> !revocations.isRevoked(token.familyId()));
+        if (verified.isEmpty()) {
+            log.debug("Rejected invalid, expired, revoked or pre-uid JWT");
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
-            if (jwtService.isTokenValid(jwt, user)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (verified.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser user = AuthenticatedUser.from(verified.get());
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    user,
+                    null,
+                    user.authorities()
+            );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
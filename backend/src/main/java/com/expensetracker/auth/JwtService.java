@@ -1,98 +1,145 @@
 package com.expensetracker.auth;
 
 import com.expensetracker.model.Users;
-import com.expensetracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
 
-    private final UserRepository userRepository;
-
-    @Value("${security.jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${security.jwt.access-token-expiration}")
-    private long accessTokenExpiration;
-
-    @Value("${security.jwt.refresh-token-expiration}")
-    private long refreshTokenExpiration;
-
-    public TokenPair generateTokenPair(Users user) {
-        String accessToken = buildToken(user, accessTokenExpiration);
-        String refreshToken = buildToken(user, refreshTokenExpiration);
-
-        userRepository.findByUsername(user.getUsername())
-                .ifPresent(usr -> {
-                    usr.setRefreshToken(refreshToken);
-                    userRepository.save(usr);
-                });
-
-        return new TokenPair(accessToken, refreshToken);
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String FAMILY_CLAIM = "fid";
+
+    private final long accessTokenExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Verified tokens by SHA-256 digest, so repeat requests skip the HMAC check
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtService(MeterRegistry meterRegistry,
+                      @Value("${security.jwt.secret}") String jwtSecret,
+                      @Value("${security.jwt.access-token-expiration}") long accessTokenExpiration,
+                      @Value("${security.jwt.verified-cache.max-size}") long verifiedCacheMaxSize,
+                      @Value("${security.jwt.verified-cache.ttl}") Duration verifiedCacheTtl) {
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        // Never keep a token past its own expiry
+                        long ttl = verifiedCacheTtl.toNanos();
+                        if (token.expiresAt() != null) {
+                            ttl = Math.min(ttl, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                        }
+                        return Math.max(ttl, 0);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
     }
 
-    private String buildToken(Users user, long expiration) {
+    /**
+     * @param familyId refresh-token family the access token belongs to, so revoking
+     *                 the family also invalidates it
+     */
+    public String generateAccessToken(Users user, UUID familyId) {
         return Jwts.builder()
                 .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, List.of(AuthenticatedUser.ROLE_USER))
+                .claim(FAMILY_CLAIM, familyId.toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .expiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public boolean isRefreshTokenValid(String refreshToken) {
-        try {
-            String username = extractUsername(refreshToken);
-            return userRepository.findByUsername(username)
-                    .map(user -> refreshToken.equals(user.getRefreshToken()))
-                    .orElse(false);
-        } catch (JwtException e) {
-            return false;
+    /**
+     * Verifies signature and expiry once per distinct token; later calls with the same
+     * token are answered from the cache until it (or the cache entry) expires.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken parse(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
         }
-    }
-
-    public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        String familyId = claims.get(FAMILY_CLAIM, String.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                roles != null ? roles.stream().map(String::valueOf).toList() : List.of(),
+                familyId != null ? UUID.fromString(familyId) : null,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        verifiedTokens.put(digest, verified);
+        return verified;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+    /**
+     * @return the verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            return Optional.of(parse(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    public boolean isTokenValid(String token, Users user) {
+    private static String digest(String token) {
         try {
-            String username = extractUsername(token);
-            return username.equals(user.getUsername()) && !isTokenExpired(token);
-        } catch (JwtException e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
     public record TokenPair(String accessToken, String refreshToken) {}
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.expensetracker.auth;
+
+import java.io.Serial;
+
+/**
+ * Thrown when the password-hashing pool is saturated, so the request is shed
+ * instead of tying up a servlet thread behind a queue of BCrypt rounds.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
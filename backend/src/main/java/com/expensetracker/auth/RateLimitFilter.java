@@ -0,0 +1,116 @@
+package com.expensetracker.auth;
+
+import com.expensetracker.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rejects requests over the configured per-route limit with 429 before they reach
+ * BCrypt or a bank sync. Runs after {@link JwtAuthenticationFilter} so routes keyed by
+ * user see the authenticated principal.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BODY = "{\"error\":\"Too many requests\"}";
+
+    private final boolean enabled;
+    private final List<LimitedRoute> routes;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.routes = properties.routes().entrySet().stream()
+                .map(entry -> {
+                    String name = entry.getKey();
+                    RateLimitProperties.Route route = entry.getValue();
+                    SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(
+                            route.limit(), route.window(), properties.maxKeysPerRoute());
+                    Gauge.builder("http.rate_limit.keys", limiter, SlidingWindowRateLimiter::size)
+                            .tag("route", name)
+                            .register(meterRegistry);
+                    return new LimitedRoute(
+                            route.method(),
+                            PathPatternParser.defaultInstance.parse(route.path()),
+                            route.key(),
+                            limiter,
+                            Counter.builder("http.rate_limit.rejected")
+                                    .tag("route", name)
+                                    .register(meterRegistry));
+                })
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (LimitedRoute route : routes) {
+            if (!route.matches(request.getMethod(), path)) {
+                continue;
+            }
+            long retryAfterMillis = route.limiter().tryAcquire(keyFor(route.key(), request), System.currentTimeMillis());
+            if (retryAfterMillis > 0) {
+                route.rejected().increment();
+                reject(response, retryAfterMillis);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String keyFor(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                return "user:" + user.id();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1, Duration.ofMillis(retryAfterMillis).toSeconds()
+                + (retryAfterMillis % 1000 == 0 ? 0 : 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(BODY);
+    }
+
+    private record LimitedRoute(String method,
+                                PathPattern pattern,
+                                RateLimitProperties.KeyType key,
+                                SlidingWindowRateLimiter limiter,
+                                Counter rejected) {
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equalsIgnoreCase(requestMethod)) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.expensetracker.auth;
+
+import com.expensetracker.model.RefreshToken;
+import com.expensetracker.model.Users;
+import com.expensetracker.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Each login starts a family (one per device);
+ * each refresh spends the presented token and issues its successor in the same family.
+ * Presenting a spent token means it leaked, so the whole family is revoked.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocations revocations;
+    private final Duration refreshTokenExpiration;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtService jwtService,
+                               TokenRevocations revocations,
+                               @Value("${security.jwt.refresh-token-expiration}") long refreshTokenExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.revocations = revocations;
+        this.refreshTokenExpiration = Duration.ofMillis(refreshTokenExpiration);
+    }
+
+    @Transactional
+    public JwtService.TokenPair issue(Users user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * @return the next token pair, or empty if the token is unknown, expired, revoked or already spent
+     */
+    @Transactional
+    public Optional<JwtService.TokenPair> rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+
+        String tokenHash = hash(refreshToken);
+        Optional<RefreshToken> stored = refreshTokenRepository.findWithUserByTokenHash(tokenHash);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken token = stored.get();
+        Instant now = Instant.now();
+        if (token.getRevokedAt() != null || !token.getExpiresAt().isAfter(now)) {
+            return Optional.empty();
+        }
+
+        if (refreshTokenRepository.markRotated(tokenHash, now) == 0) {
+            log.warn("Refresh token reuse detected for user {}; revoking family {}",
+                    token.getUser().getId(), token.getFamilyId());
+            revokeFamily(token.getFamilyId(), now);
+            return Optional.empty();
+        }
+
+        return Optional.of(issue(token.getUser(), token.getFamilyId()));
+    }
+
+    /**
+     * Logs the device out: revokes the token's family, including access tokens issued from it.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findById(hash(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), Instant.now()));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-token-purge-interval}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private JwtService.TokenPair issue(Users user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        refreshTokenRepository.insert(hash(refreshToken), user.getId(), familyId,
+                now.plus(refreshTokenExpiration), now);
+
+        return new JwtService.TokenPair(jwtService.generateAccessToken(user, familyId), refreshToken);
+    }
+
+    private void revokeFamily(UUID familyId, Instant now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        revocations.revokeFamily(familyId);
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.expensetracker.auth;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window counter per key: the previous window's count is weighted by how much
+ * of it still overlaps the sliding window, which approximates a true sliding log in
+ * constant space. Each key's state is one {@link AtomicLong} updated by CAS
+ * (window index | previous count | current count), so acquiring never locks.
+ * <p>
+ * Keys are spread over independent stripes, each capped at its share of
+ * {@code maxKeys}. A full stripe drops keys that no longer affect any decision; if it
+ * is still full, new keys are rejected until its keys age out, at most two windows
+ * later. Failing closed keeps a flood of distinct keys from switching the limit off
+ * for everyone else.
+ */
+final class SlidingWindowRateLimiter {
+
+    static final int MAX_LIMIT = 0xFFFF;
+    private static final int STRIPES = 16;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    SlidingWindowRateLimiter(int limit, Duration window, int maxKeys) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("window must be at least 1ms: " + window);
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Counts one request for {@code key} if it fits in the window.
+     *
+     * @return 0 if the request is allowed, otherwise the milliseconds until it would be
+     */
+    long tryAcquire(String key, long nowMillis) {
+        int window = (int) (nowMillis / windowMillis);
+        long elapsed = nowMillis % windowMillis;
+
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        AtomicLong state = counterFor(stripe, key, window);
+        if (state == null) {
+            // A key weighs on decisions through the window after its own, so the oldest
+            // one left can be swept once the window after that starts
+            return Math.max(1, (stripe.oldestWindow + 2L) * windowMillis - nowMillis);
+        }
+
+        while (true) {
+            long current = state.get();
+            int storedWindow = windowOf(current);
+            int previousCount = (int) ((current >>> 16) & 0xFFFF);
+            int currentCount = (int) (current & 0xFFFF);
+            if (storedWindow != window) {
+                previousCount = storedWindow == window - 1 ? currentCount : 0;
+                currentCount = 0;
+            }
+
+            double weight = 1.0 - (double) elapsed / windowMillis;
+            if (previousCount * weight + currentCount + 1 > limit) {
+                return retryAfter(previousCount, currentCount, elapsed);
+            }
+
+            long next = ((long) window << 32) | ((long) previousCount << 16) | (currentCount + 1);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.counters.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the key's counter, or null if its stripe is full of live keys
+     */
+    private AtomicLong counterFor(Stripe stripe, String key, int window) {
+        AtomicLong state = stripe.counters.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (stripe.counters.size() >= maxKeysPerStripe) {
+            stripe.sweep(window);
+            if (stripe.counters.size() >= maxKeysPerStripe) {
+                return null;
+            }
+        }
+        return stripe.counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    /**
+     * Time until the weighted count drops far enough to admit one more request,
+     * assuming no further requests arrive.
+     */
+    private long retryAfter(int previousCount, int currentCount, long elapsed) {
+        long wait;
+        if (currentCount + 1 > limit) {
+            // Wait for the next window, then for this window's share to decay enough
+            wait = (windowMillis - elapsed) + ceilDiv(windowMillis * (currentCount - limit + 1), currentCount);
+        } else {
+            wait = ceilDiv(windowMillis * (previousCount - (limit - 1 - currentCount)), previousCount) - elapsed;
+        }
+        return Math.max(1, wait);
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return Math.max(0, Math.ceilDiv(dividend, divisor));
+    }
+
+    private static int windowOf(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        // Window of the oldest key the last sweep kept
+        private volatile int oldestWindow;
+
+        // Keys last seen two or more windows ago no longer affect any decision
+        void sweep(int window) {
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                int oldest = window;
+                Iterator<AtomicLong> states = counters.values().iterator();
+                while (states.hasNext()) {
+                    int stored = windowOf(states.next().get());
+                    if (window - stored >= 2) {
+                        states.remove();
+                    } else {
+                        oldest = Math.min(oldest, stored);
+                    }
+                }
+                oldestWindow = oldest;
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.expensetracker.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-memory set of revoked token families, consulted for every access token so a
+ * logout or detected refresh-token reuse takes effect before the access token expires.
+ * Entries only need to outlive the access-token lifetime. The set is per instance;
+ * the refresh-token table stays the source of truth.
+ */
+@Component
+public class TokenRevocations {
+
+    private final Cache<UUID, Boolean> revokedFamilies;
+
+    public TokenRevocations(MeterRegistry meterRegistry,
+                            @Value("${security.jwt.access-token-expiration}") long accessTokenExpiration,
+                            @Value("${security.jwt.revocations.max-size}") long maxSize) {
+        this.revokedFamilies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedFamilies, "jwt.revoked.families");
+    }
+
+    public void revokeFamily(UUID familyId) {
+        revokedFamilies.put(familyId, Boolean.TRUE);
+    }
+
+    public boolean isRevoked(UUID familyId) {
+        return familyId != null && revokedFamilies.getIfPresent(familyId) != null;
+    }
+}
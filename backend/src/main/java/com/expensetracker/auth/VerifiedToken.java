@@ -0,0 +1,17 @@
+package com.expensetracker.auth;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked.
+ * {@code userId} and {@code familyId} are null for tokens issued before those claims existed.
+ */
+public record VerifiedToken(String subject, Long userId, List<String> roles, UUID familyId,
+                            Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
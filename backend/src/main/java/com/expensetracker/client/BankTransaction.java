@@ -0,0 +1,25 @@
+package com.expensetracker.client;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of a GoCardless {@code /accounts/{id}/transactions/} payload, already
+ * converted to typed values. {@code amount} keeps the sign sent by the bank.
+ */
+public record BankTransaction(
+        String transactionId,
+        boolean booked,
+        BigDecimal amount,
+        String currency,
+        String description,
+        LocalDate bookingDate,
+        LocalDate valueDate,
+        String creditorName,
+        String debtorName,
+        String creditorAccount,
+        String debtorAccount,
+        String bankTransactionCode,
+        String proprietaryBankTransactionCode,
+        BigDecimal balanceAfterTransaction
+) {}
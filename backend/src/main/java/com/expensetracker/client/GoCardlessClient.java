@@ -0,0 +1,233 @@
+package com.expensetracker.client;
+
+import com.expensetracker.service.GoCardlessAuthService;
+import com.expensetracker.service.SyncConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Single entry point for calls to the GoCardless bank-data API. Adds the access
+ * token, tracks the rate-limit budget reported by the provider, retries throttled
+ * and transient failures with jittered exponential backoff, and refuses to call
+ * endpoints or accounts whose budget is known to be exhausted.
+ * <p>
+ * Only transport failures are retried, never a response that arrived but could not
+ * be read: a streaming extractor may already have acted on part of it. Backoff
+ * sleeps hand back the caller's {@link SyncConcurrencyLimiter} permits.
+ * <p>
+ * Paths are URI templates expanded with the given variables, which keeps the
+ * {@code http.client.requests} uri tag low-cardinality.
+ */
+@Slf4j
+@Component
+public class GoCardlessClient {
+    private final RestTemplate restTemplate;
+    private final RateLimitBudgetTracker budgetTracker;
+    private final ObjectProvider<GoCardlessAuthService> authService;
+    private final SyncConcurrencyLimiter concurrencyLimiter;
+    private final String baseUrl;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public GoCardlessClient(
+            RestTemplate restTemplate,
+            RateLimitBudgetTracker budgetTracker,
+            ObjectProvider<GoCardlessAuthService> authService,
+            SyncConcurrencyLimiter concurrencyLimiter,
+            @Value("${gocardless.base-url}") String baseUrl,
+            @Value("${gocardless.retry.max-attempts}") int maxAttempts,
+            @Value("${gocardless.retry.initial-backoff}") Duration initialBackoff,
+            @Value("${gocardless.retry.max-backoff}") Duration maxBackoff) {
+        this.restTemplate = restTemplate;
+        this.budgetTracker = budgetTracker;
+        this.authService = authService;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.baseUrl = baseUrl;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public <T> T get(String path, Class<T> responseType, Object... uriVariables) {
+        return execute(HttpMethod.GET, path, uriVariables, null, true, null, typedExtractor(responseType), responseType);
+    }
+
+    public <T> T post(String path, Object body, Class<T> responseType, Object... uriVariables) {
+        return execute(HttpMethod.POST, path, uriVariables, body, true, null, typedExtractor(responseType), responseType);
+    }
+
+    /**
+     * Posts without an access token, for the token endpoints themselves.
+     */
+    public <T> T postUnauthenticated(String path, Object body, Class<T> responseType, Object... uriVariables) {
+        return execute(HttpMethod.POST, path, uriVariables, body, false, null, typedExtractor(responseType), responseType);
+    }
+
+    /**
+     * Reads an account-scoped resource through {@code extractor}, charging the call
+     * against that account's per-endpoint budget as well as the endpoint budget.
+     */
+    public <T> T getForAccount(String accountId, String accountEndpoint, String path,
+                               ResponseExtractor<T> extractor, Object... uriVariables) {
+        return execute(HttpMethod.GET, path, uriVariables, null, true, accountId + ":" + accountEndpoint, extractor, null);
+    }
+
+    private <T> T execute(HttpMethod method, String path, Object[] uriVariables, Object body, boolean authenticated,
+                          String accountScope, ResponseExtractor<T> extractor, Class<?> responseType) {
+        String endpointKey = "endpoint:" + endpointOf(path);
+        String accountKey = accountScope != null ? "account:" + accountScope : null;
+        ResponseExtractor<T> recordingExtractor = response -> {
+            budgetTracker.record(endpointKey, accountKey, response.getHeaders());
+            try {
+                return extractor.extractData(response);
+            } catch (IOException e) {
+                // RestTemplate would wrap this in a retryable ResourceAccessException
+                throw new RestClientException("Failed to read GoCardless response of " + method + " " + path, e);
+            }
+        };
+
+        for (int attempt = 1; ; attempt++) {
+            checkBudget(endpointKey);
+            checkBudget(accountKey);
+
+            try {
+                return restTemplate.execute(
+                        baseUrl + path,
+                        method,
+                        requestCallback(body, authenticated, responseType),
+                        recordingExtractor,
+                        uriVariables
+                );
+            } catch (HttpStatusCodeException e) {
+                budgetTracker.record(endpointKey, accountKey, e.getResponseHeaders());
+                boolean throttled = e.getStatusCode().value() == 429;
+                boolean retryable = throttled || (method == HttpMethod.GET && e.getStatusCode().is5xxServerError());
+                if (!retryable || attempt >= maxAttempts) {
+                    throw e;
+                }
+
+                Duration delay = retryDelay(e.getResponseHeaders(), throttled, accountKey != null, attempt);
+                if (delay.compareTo(maxBackoff) > 0) {
+                    String key = accountKey != null ? accountKey : endpointKey;
+                    throw new RateLimitExhaustedException(key, Instant.now().plus(delay));
+                }
+                log.debug("GoCardless {} {} returned {}, retrying in {} ms (attempt {}/{})",
+                        method, path, e.getStatusCode().value(), delay.toMillis(), attempt, maxAttempts);
+                sleep(delay);
+            } catch (ResourceAccessException e) {
+                if (method != HttpMethod.GET || attempt >= maxAttempts) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                log.debug("GoCardless {} {} failed with {}, retrying in {} ms (attempt {}/{})",
+                        method, path, e.getMessage(), delay.toMillis(), attempt, maxAttempts);
+                sleep(delay);
+            }
+        }
+    }
+
+    private void checkBudget(String key) {
+        Instant blockedUntil = budgetTracker.blockedUntil(key);
+        if (blockedUntil != null) {
+            throw new RateLimitExhaustedException(key, blockedUntil);
+        }
+    }
+
+    private RequestCallback requestCallback(Object body, boolean authenticated, Class<?> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authenticated) {
+            headers.setBearerAuth(authService.getObject().getAccessToken());
+        }
+        if (body != null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        HttpEntity<Object> entity = new HttpEntity<>(body, headers);
+        return responseType != null
+                ? restTemplate.httpEntityCallback(entity, responseType)
+                : restTemplate.httpEntityCallback(entity);
+    }
+
+    private <T> ResponseExtractor<T> typedExtractor(Class<T> responseType) {
+        return new HttpMessageConverterExtractor<>(responseType, restTemplate.getMessageConverters());
+    }
+
+    /**
+     * Honors the provider's hint on 429s ({@code Retry-After}, or the reset of the
+     * exhausted budget) and falls back to jittered exponential backoff otherwise.
+     */
+    private Duration retryDelay(HttpHeaders headers, boolean throttled, boolean accountScoped, int attempt) {
+        if (throttled && headers != null) {
+            Long hintSeconds = parseSeconds(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            if (hintSeconds == null && accountScoped) {
+                hintSeconds = parseSeconds(headers.getFirst(RateLimitBudgetTracker.ACCOUNT_RESET));
+            }
+            if (hintSeconds == null) {
+                hintSeconds = parseSeconds(headers.getFirst(RateLimitBudgetTracker.RESET));
+            }
+            if (hintSeconds != null) {
+                return Duration.ofSeconds(hintSeconds).plus(backoff(1));
+            }
+        }
+        return backoff(attempt);
+    }
+
+    private Duration backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private static Long parseSeconds(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            concurrencyLimiter.sleepWithoutPermits(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while backing off a GoCardless call", e);
+        }
+    }
+
+    /**
+     * Budget key for a path template: the query is dropped and each {@code {variable}}
+     * segment becomes {@code *}, so the transactions and details endpoints of all
+     * accounts keep separate budgets instead of sharing one per resource.
+     */
+    static String endpointOf(String path) {
+        int query = path.indexOf('?');
+        String template = query >= 0 ? path.substring(0, query) : path;
+        return Arrays.stream(template.split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(segment -> segment.startsWith("{") && segment.endsWith("}") ? "*" : segment)
+                .collect(Collectors.joining("/"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.expensetracker.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Streams the {@code booked} and {@code pending} arrays of a transactions payload,
+ * handing each row to the consumer as soon as it has been read. The document is
+ * never materialized as a tree, so memory stays bounded by a single row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GoCardlessTransactionParser {
+    private final ObjectMapper objectMapper;
+
+    public void parse(InputStream body, Consumer<BankTransaction> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a transactions document");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("transactions".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    parseStatusArrays(parser, consumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void parseStatusArrays(JsonParser parser, Consumer<BankTransaction> consumer) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String status = parser.currentName();
+            parser.nextToken();
+            boolean booked = "booked".equals(status);
+            if ((booked || "pending".equals(status)) && parser.currentToken() == JsonToken.START_ARRAY) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    BankTransaction transaction = parseTransaction(parser, booked);
+                    if (transaction != null) {
+                        consumer.accept(transaction);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private BankTransaction parseTransaction(JsonParser parser, boolean booked) throws IOException {
+        String transactionId = null;
+        String[] amount = null;
+        String description = null;
+        String bookingDate = null;
+        String valueDate = null;
+        String creditorName = null;
+        String debtorName = null;
+        String creditorAccount = null;
+        String debtorAccount = null;
+        String bankTransactionCode = null;
+        String proprietaryBankTransactionCode = null;
+        String[] balance = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "transactionId" -> transactionId = readText(parser);
+                case "transactionAmount" -> amount = readAmount(parser);
+                case "remittanceInformationUnstructured" -> description = readText(parser);
+                case "bookingDate" -> bookingDate = readText(parser);
+                case "valueDate" -> valueDate = readText(parser);
+                case "creditorName" -> creditorName = readText(parser);
+                case "debtorName" -> debtorName = readText(parser);
+                case "creditorAccount" -> creditorAccount = readAccountReference(parser);
+                case "debtorAccount" -> debtorAccount = readAccountReference(parser);
+                case "bankTransactionCode" -> bankTransactionCode = readText(parser);
+                case "proprietaryBankTransactionCode" -> proprietaryBankTransactionCode = readText(parser);
+                case "balanceAfterTransaction" -> balance = readAmount(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        try {
+            BigDecimal balanceAfterTransaction = null;
+            if (balance != null && balance[0] != null) {
+                try {
+                    balanceAfterTransaction = new BigDecimal(balance[0]);
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid balance amount format: {}", balance[0]);
+                }
+            }
+
+            return new BankTransaction(
+                    transactionId,
+                    booked,
+                    new BigDecimal(amount[0]),
+                    amount[1],
+                    description,
+                    bookingDate != null ? LocalDate.parse(bookingDate) : null,
+                    valueDate != null ? LocalDate.parse(valueDate) : null,
+                    creditorName,
+                    debtorName,
+                    creditorAccount,
+                    debtorAccount,
+                    bankTransactionCode,
+                    proprietaryBankTransactionCode,
+                    balanceAfterTransaction
+            );
+        } catch (Exception e) {
+            log.warn("Failed to map transaction data: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    /**
+     * Reads an amount object into {@code [amount, currency]}. Balances nest the
+     * amount one level deeper under {@code balanceAmount}.
+     */
+    private static String[] readAmount(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String[] amount = new String[2];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "amount" -> amount[0] = readText(parser);
+                case "currency" -> amount[1] = readText(parser);
+                case "balanceAmount" -> {
+                    String[] nested = readAmount(parser);
+                    if (nested != null) {
+                        amount = nested;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return amount;
+    }
+
+    private static String readAccountReference(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String iban = null;
+        String bban = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "iban" -> iban = readText(parser);
+                case "bban" -> bban = readText(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return iban != null ? iban : bban;
+    }
+}
@@ -0,0 +1,74 @@
+package com.expensetracker.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the remaining request budget that GoCardless reports in its rate-limit
+ * headers, per endpoint and per (account, endpoint), so calls that would certainly
+ * be rejected are not sent at all.
+ */
+@Component
+public class RateLimitBudgetTracker {
+    static final String REMAINING = "HTTP_X_RATELIMIT_REMAINING";
+    static final String RESET = "HTTP_X_RATELIMIT_RESET";
+    static final String ACCOUNT_REMAINING = "HTTP_X_RATELIMIT_ACCOUNT_SUCCESS_REMAINING";
+    static final String ACCOUNT_RESET = "HTTP_X_RATELIMIT_ACCOUNT_SUCCESS_RESET";
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the instant the budget for {@code key} resets if it is currently
+     * exhausted, or {@code null} when calls may proceed.
+     */
+    public Instant blockedUntil(String key) {
+        if (key == null) {
+            return null;
+        }
+        Budget budget = budgets.get(key);
+        if (budget == null || budget.remaining() > 0) {
+            return null;
+        }
+        if (!Instant.now().isBefore(budget.resetAt())) {
+            budgets.remove(key, budget);
+            return null;
+        }
+        return budget.resetAt();
+    }
+
+    public void record(String endpointKey, String accountKey, HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        update(endpointKey, headers.getFirst(REMAINING), headers.getFirst(RESET));
+        if (accountKey != null) {
+            update(accountKey, headers.getFirst(ACCOUNT_REMAINING), headers.getFirst(ACCOUNT_RESET));
+        }
+        if (budgets.size() > SWEEP_THRESHOLD) {
+            Instant now = Instant.now();
+            budgets.values().removeIf(budget -> !now.isBefore(budget.resetAt()));
+        }
+    }
+
+    private void update(String key, String remaining, String resetSeconds) {
+        if (remaining == null || resetSeconds == null) {
+            return;
+        }
+        try {
+            budgets.put(key, new Budget(
+                    Long.parseLong(remaining.trim()),
+                    Instant.now().plusSeconds(Long.parseLong(resetSeconds.trim()))
+            ));
+        } catch (NumberFormatException ignored) {
+            // Malformed headers leave the previous budget in place
+        }
+    }
+
+    public record Budget(long remaining, Instant resetAt) {}
+}
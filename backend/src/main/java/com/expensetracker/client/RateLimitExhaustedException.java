@@ -0,0 +1,26 @@
+package com.expensetracker.client;
+
+import lombok.Getter;
+
+import java.io.Serial;
+import java.time.Instant;
+
+/**
+ * Thrown instead of calling the bank-data API when the request budget for an
+ * endpoint or account is used up. Callers should defer the work until
+ * {@link #getRetryAt()}.
+ */
+@Getter
+public class RateLimitExhaustedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String budgetKey;
+    private final Instant retryAt;
+
+    public RateLimitExhaustedException(String budgetKey, Instant retryAt) {
+        super("Rate limit budget for " + budgetKey + " exhausted until " + retryAt);
+        this.budgetKey = budgetKey;
+        this.retryAt = retryAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-route request limits enforced by {@code RateLimitFilter}, e.g.
+ * {@code rate-limit.routes.login.path=/api/auth/login}.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(boolean enabled, int maxKeysPerRoute, Map<String, Route> routes) {
+
+    public RateLimitProperties {
+        routes = routes != null ? routes : Map.of();
+    }
+
+    /**
+     * @param method HTTP method to match, or null for any
+     * @param path   path pattern, e.g. {@code /api/transactions/sync}
+     * @param key    whose requests are counted together
+     */
+    public record Route(String method, String path, KeyType key, int limit, Duration window) {}
+
+    public enum KeyType {
+        /** Client address */
+        IP,
+        /** Authenticated user; anonymous requests fall back to the client address */
+        USER
+    }
+}
@@ -3,7 +3,11 @@ package com.expensetracker.config;
 import com.expensetracker.auth.JwtAuthEntryPoint;
 import com.expensetracker.auth.JwtAuthenticationFilter;
 import com.expensetracker.auth.JwtService;
-import com.expensetracker.repository.UserRepository;
+import com.expensetracker.auth.RateLimitFilter;
+import com.expensetracker.auth.TokenRevocations;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,22 +20,24 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthEntryPoint authEntryPoint;
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
-    private  final UserRepository userRepository;
+    private final TokenRevocations tokenRevocations;
+    private final RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService, userRepository);
+        return new JwtAuthenticationFilter(jwtService, tokenRevocations);
     }
 
 
@@ -46,6 +52,9 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // SSE and streamed exports finish on an async dispatch, which the JWT filter
+                        // skips; the request was authorized when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/dev/docs/**",
@@ -57,7 +66,9 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+                // Not a bean, so the servlet container does not also register it ahead of authentication
+                .addFilterAfter(new RateLimitFilter(rateLimitProperties, meterRegistry), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -70,7 +81,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength}") int strength) {
+        // Existing hashes with a lower strength are upgraded on the next successful login
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
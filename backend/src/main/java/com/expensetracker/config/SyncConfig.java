@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@EnableScheduling
+public class SyncConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService bankSyncExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("bank-sync-", 0).factory()
+        );
+    }
+
+    /**
+     * Holds delayed background syncs until they are due and then hands them to
+     * {@link #bankSyncExecutor()}. Pending ones are dropped on shutdown.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService bankSyncTimer() {
+        return Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("bank-sync-timer").daemon().factory()
+        );
+    }
+}
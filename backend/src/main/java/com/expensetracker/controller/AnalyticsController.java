@@ -0,0 +1,166 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.auth.AuthenticatedUser;
+import com.expensetracker.dto.FactAggregate;
+import com.expensetracker.dto.SpendingRollupRow;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.repository.SpendingRollupRepository.Granularity;
+import com.expensetracker.service.ColumnarAnalyticsService;
+import com.expensetracker.service.SpendingRollupService;
+import com.expensetracker.service.UserFactColumns;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Pre-aggregated spending summaries")
+public class AnalyticsController {
+
+    private final SpendingRollupService rollupService;
+    private final ColumnarAnalyticsService columnarAnalytics;
+
+    @Operation(
+            summary = "Get Spending Summary",
+            description = "Retrieve spending totals of the authenticated user per period, source, category, currency " +
+                    "and transaction type. granularity is daily or monthly; the range defaults to the last 12 months " +
+                    "(monthly) or the last 31 days (daily).",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully retrieved spending summary",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = SpendingRollupRow.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid granularity or date range",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "object", example = "{\"error\": \"Unsupported granularity: weekly\"}")
+                            )
+                    )
+            }
+    )
+    @GetMapping("/spending")
+    public ResponseEntity<?> getSpending(
+            AuthenticatedUser user,
+            @RequestParam(defaultValue = "monthly") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        Granularity level;
+        try {
+            level = Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported granularity: " + granularity));
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from
+                : level == Granularity.MONTHLY ? end.minusMonths(12).withDayOfMonth(1) : end.minusDays(31);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+
+        List<SpendingRollupRow> rows = rollupService.getSpending(user.id(), level, start, end);
+        return ResponseEntity.ok(rows);
+    }
+
+    @Operation(
+            summary = "Sum Spending",
+            description = "Total amount and count per currency of the authenticated user's transactions and expenses " +
+                    "of the given type between from and to (inclusive). Served from an in-memory columnar cache.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully computed totals",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = FactAggregate.class))
+                            )
+                    )
+            }
+    )
+    @GetMapping("/facts/sum")
+    public ResponseEntity<List<FactAggregate>> sumFacts(
+            AuthenticatedUser user,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DEBIT") Transaction.TransactionType type) {
+
+        return ResponseEntity.ok(columnarAnalytics.sum(user.id(), from, to, type));
+    }
+
+    @Operation(
+            summary = "Group Spending",
+            description = "Total amount and count per category, currency or merchant (and currency) of the " +
+                    "authenticated user's transactions and expenses of the given type between from and to.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully computed groups",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = FactAggregate.class))
+                            )
+                    )
+            }
+    )
+    @GetMapping("/facts/group-by")
+    public ResponseEntity<List<FactAggregate>> groupFacts(
+            AuthenticatedUser user,
+            @RequestParam UserFactColumns.Dimension dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DEBIT") Transaction.TransactionType type) {
+
+        return ResponseEntity.ok(columnarAnalytics.groupBy(user.id(), dimension, from, to, type));
+    }
+
+    @Operation(
+            summary = "Top Spending",
+            description = "The groups with the highest amount (e.g. top merchants) of the authenticated user's " +
+                    "transactions and expenses of the given type between from and to.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully computed top groups",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = FactAggregate.class))
+                            )
+                    )
+            }
+    )
+    @GetMapping("/facts/top")
+    public ResponseEntity<List<FactAggregate>> topFacts(
+            AuthenticatedUser user,
+            @RequestParam(defaultValue = "MERCHANT") UserFactColumns.Dimension dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DEBIT") Transaction.TransactionType type,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(columnarAnalytics.top(
+                user.id(), dimension, from, to, type, Math.clamp(limit, 1, 100)));
+    }
+}
@@ -1,11 +1,11 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.auth.JwtService;
+import com.expensetracker.auth.PasswordHashingOverloadedException;
+import com.expensetracker.auth.RefreshTokenService;
 import com.expensetracker.dto.AuthRequest;
 import com.expensetracker.dto.AuthResponse;
 import com.expensetracker.dto.RefreshRequest;
-import com.expensetracker.model.Users;
-import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -31,8 +32,7 @@ import java.util.Map;
 )
 public class AuthController {
 
-    private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
     private final AuthService authService;
 
     @Operation(
@@ -47,6 +47,10 @@ public class AuthController {
                             mediaType = "application/json",
                             schema = @io.swagger.v3.oas.annotations.media.Schema(type = "object", example = "{\"error\": \"Invalid email or password\"}")
                     )),
+                    @ApiResponse(responseCode = "503", description = "Too many concurrent password checks, retry shortly", content = @Content(
+                            mediaType = "application/json",
+                            schema = @io.swagger.v3.oas.annotations.media.Schema(type = "object", example = "{\"error\": \"Too many login attempts in progress, retry shortly\"}")
+                    )),
                     @ApiResponse(responseCode = "500", description = "Authentication service temporarily unavailable", content = @Content(
                             mediaType = "application/json",
                             schema = @io.swagger.v3.oas.annotations.media.Schema(type = "object", example = "{\"error\": \"Authentication service temporarily unavailable\"}")
@@ -66,6 +70,9 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid username or password"));
 
+        } catch (PasswordHashingOverloadedException e) {
+            return overloaded();
+
         } catch (DataAccessException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Database error occurred"));
@@ -89,6 +96,10 @@ public class AuthController {
                             mediaType = "application/json",
                             schema = @io.swagger.v3.oas.annotations.media.Schema(type = "object", example = "{\"error\": \"User already exists\"}")
                     )),
+                    @ApiResponse(responseCode = "503", description = "Too many concurrent password checks, retry shortly", content = @Content(
+                            mediaType = "application/json",
+                            schema = @io.swagger.v3.oas.annotations.media.Schema(type = "object", example = "{\"error\": \"Too many login attempts in progress, retry shortly\"}")
+                    )),
                     @ApiResponse(responseCode = "500", description = "Registration service temporarily unavailable", content = @Content(
                             mediaType = "application/json",
                             schema = @io.swagger.v3.oas.annotations.media.Schema(type = "object", example = "{\"error\": \"Registration service temporarily unavailable\"}")
@@ -108,6 +119,9 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Username, email, and password must not be null"));
 
+        } catch (PasswordHashingOverloadedException e) {
+            return overloaded();
+
         } catch (Exception e) {
             System.err.println("Registration error: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -136,14 +150,8 @@ public class AuthController {
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponse> refreshToken(@RequestBody RefreshRequest request) {
         try {
-                if (!jwtService.isRefreshTokenValid(request.refreshToken())) {
-                    throw new BadCredentialsException("Invalid refresh token");
-                }
-
-                String username = jwtService.extractUsername(request.refreshToken());
-                Users user = userRepository.findByUsername(username)
-                        .orElseThrow(() -> new BadCredentialsException("User not found"));
-                JwtService.TokenPair tokens = jwtService.generateTokenPair(user);
+                JwtService.TokenPair tokens = refreshTokenService.rotate(request.refreshToken())
+                        .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
 
                 return ResponseEntity.ok(new AuthResponse(
                         tokens.accessToken(),
@@ -155,4 +163,24 @@ public class AuthController {
                         .body(new AuthResponse(null, null));
             }
         }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Logout",
+            description = "Revoke the refresh token and every token rotated from the same login, " +
+                    "including access tokens issued from it",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Tokens revoked")
+            }
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshRequest request) {
+        refreshTokenService.revoke(request.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<Map<String, String>> overloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Too many login attempts in progress, retry shortly"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.auth.AuthenticatedUser;
 import com.expensetracker.dto.BankDTO;
 import com.expensetracker.model.BankConnection;
 import com.expensetracker.model.Users;
@@ -11,9 +12,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -96,16 +94,10 @@ public class BankController {
     @PostMapping("/institutions/{bankId}/connect")
     public ResponseEntity<?> connectBankAccount(
             @PathVariable String bankId,
-            @AuthenticationPrincipal Object principal) {
+            AuthenticatedUser user) {
 
         try {
-            String username = principal instanceof UserDetails
-                    ? ((UserDetails) principal).getUsername()
-                    : principal.toString();
-
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException(username));
-
+            Users owner = userRepository.getReferenceById(user.id());
             String reference = generateReference(user);
 
             Map<String, String> connectionInfo = requisitionService.createRequisition(
@@ -114,7 +106,7 @@ public class BankController {
             );
 
             BankConnection connection = BankConnection.builder()
-                    .user(user)
+                    .user(owner)
                     .institutionId(bankId)
                     .requisitionId(connectionInfo.get("requisitionId"))
                     .reference(reference)
@@ -169,14 +161,12 @@ public class BankController {
             }
 
             if (error != null) {
-                connection.setStatus("ERROR");
-                bankConnectionRepo.save(connection);
+                requisitionService.updateConnectionStatus(connection, "ERROR");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Bank connection failed: " + error));
             }
 
-            connection.setStatus("LINKED");
-            bankConnectionRepo.save(connection);
+            requisitionService.updateConnectionStatus(connection, "LINKED");
 
             return ResponseEntity.ok(Map.of(
                     "message", "Bank account connected successfully",
@@ -210,17 +200,10 @@ public class BankController {
     )
     @GetMapping("/transactions")
     public ResponseEntity<?> getTransactions(
-            @AuthenticationPrincipal Object principal) {
+            AuthenticatedUser user) {
 
         try {
-            String username = principal instanceof UserDetails
-                    ? ((UserDetails) principal).getUsername()
-                    : principal.toString();
-
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException(username));
-
-            List<BankConnection> connections = bankConnectionRepo.findByUser(user);
+            List<BankConnection> connections = bankConnectionRepo.findByUser(userRepository.getReferenceById(user.id()));
             if (connections.isEmpty()) {
                 return ResponseEntity.ok(Map.of("message", "No bank connections found"));
             }
@@ -233,7 +216,7 @@ public class BankController {
         }
     }
 
-    private String generateReference(Users user) {
-        return "user-" + user.getId() + "-" + System.currentTimeMillis();
+    private String generateReference(AuthenticatedUser user) {
+        return "user-" + user.id() + "-" + System.currentTimeMillis();
     }
 }
\ No newline at end of file
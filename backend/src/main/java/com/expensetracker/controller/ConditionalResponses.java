@@ -0,0 +1,44 @@
+package com.expensetracker.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Objects;
+
+/**
+ * Shared pieces of the conditional GET handling on the list endpoints.
+ */
+final class ConditionalResponses {
+
+    // Clients may keep list responses but must revalidate them with If-None-Match
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * The ETag variant for a representation: the endpoint and its parameters plus the
+     * Accept header, since the same data is served as JSON or CBOR.
+     */
+    static String variant(String resource, WebRequest request) {
+        return resource + "|" + Objects.requireNonNullElse(request.getHeader(HttpHeaders.ACCEPT), "");
+    }
+
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
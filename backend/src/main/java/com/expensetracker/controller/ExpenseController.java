@@ -1,19 +1,32 @@
 package com.expensetracker.controller;
 
-import com.expensetracker.model.Users;
+import com.expensetracker.auth.AuthenticatedUser;
+import com.expensetracker.dto.ExpenseRequest;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.ExportFormat;
+import com.expensetracker.service.ExportService;
+import com.expensetracker.service.UserDataVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -25,6 +38,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class ExpenseController {
     private  final ExpenseService expenseService;
     private final UserRepository userRepository;
+    private final ExportService exportService;
+    private final UserDataVersionService dataVersionService;
 
     @Operation(
         summary = "Get All Expenses for User",
@@ -45,14 +60,15 @@ public class ExpenseController {
         }
     )
     @GetMapping("/")
-    public ResponseEntity<?> getAllExpensesForUser() {
+    public ResponseEntity<?> getAllExpensesForUser(AuthenticatedUser user, WebRequest request) {
         try {
-            Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            String username = principal instanceof UserDetails ? ((UserDetails) principal).getUsername() : principal.toString();
-
-            Users user = userRepository.findByUsername(username).orElseThrow(() -> new RuntimeException("User not found: " + username));
+            String etag = dataVersionService.etag(user.id(), ConditionalResponses.variant("expenses", request));
+            if (request.checkNotModified(etag)) {
+                return ConditionalResponses.notModified(etag);
+            }
 
-            return new ResponseEntity<>(expenseService.getAllExpensesByUser(user), HttpStatus.OK);
+            return ConditionalResponses.ok(etag)
+                    .body(expenseService.getAllExpensesByUser(user.id()));
 
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -60,4 +76,91 @@ public class ExpenseController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
+
+    @Operation(
+        summary = "Create Expense",
+        description = "Records a manual expense for the authenticated user. Amount is given in minor units (cents).",
+        responses = {
+            @ApiResponse(
+                responseCode = "201",
+                description = "Expense created"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Invalid expense"
+            )
+        }
+    )
+    @PostMapping("/")
+    public ResponseEntity<?> createExpense(AuthenticatedUser user, @RequestBody ExpenseRequest request) {
+        try {
+            return new ResponseEntity<>(expenseService.createExpense(userRepository.getReferenceById(user.id()), request), HttpStatus.CREATED);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Operation(
+        summary = "Delete Expense",
+        description = "Deletes an expense owned by the authenticated user.",
+        responses = {
+            @ApiResponse(
+                responseCode = "204",
+                description = "Expense deleted"
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Expense not found"
+            )
+        }
+    )
+    @DeleteMapping("/{expenseId}")
+    public ResponseEntity<?> deleteExpense(AuthenticatedUser user, @PathVariable Long expenseId) {
+        try {
+            return expenseService.deleteExpense(user.id(), expenseId)
+                    ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                    : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Operation(
+        summary = "Export Expenses for User",
+        description = "Streams all expenses of the authenticated user as CSV or NDJSON (format=csv|ndjson).",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Expense export stream"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Unsupported export format"
+            )
+        }
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpensesForUser(AuthenticatedUser user, @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        Long userId = user.id();
+        StreamingResponseBody body = out -> exportService.exportExpenses(userId, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("expenses." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
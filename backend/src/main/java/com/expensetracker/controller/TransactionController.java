@@ -1,11 +1,18 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.auth.AuthenticatedUser;
+import com.expensetracker.dto.SyncJobStatus;
 import com.expensetracker.dto.TransactionDto;
-import com.expensetracker.mapper.TransactionMapper;
+import com.expensetracker.dto.TransactionPage;
+import com.expensetracker.dto.TransactionSearchPage;
 import com.expensetracker.model.Transaction;
-import com.expensetracker.model.Users;
-import com.expensetracker.repository.UserRepository;
+import com.expensetracker.repository.TransactionFields;
+import com.expensetracker.service.ExportFormat;
+import com.expensetracker.service.ExportService;
+import com.expensetracker.service.SyncJob;
+import com.expensetracker.service.SyncJobService;
 import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.UserDataVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,18 +21,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -34,23 +42,26 @@ import java.util.stream.Collectors;
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private final UserRepository userRepository;
+    private final SyncJobService syncJobService;
+    private final ExportService exportService;
+    private final UserDataVersionService dataVersionService;
 
     @Operation(
             summary = "Sync Transactions",
-            description = "Fetch and save transactions for the authenticated user",
+            description = "Start a background job that fetches and saves transactions for the authenticated user. " +
+                    "If a sync is already running for the user, that job is returned instead.",
             responses = {
                     @ApiResponse(
-                            responseCode = "200",
-                            description = "Transactions synced successfully",
+                            responseCode = "202",
+                            description = "Sync job accepted",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(example = "{\"message\":\"Transactions synced successfully\",\"transactionCount\":10,\"transactions\":[{...}]}")
+                                    schema = @Schema(example = "{\"jobId\":\"3f2b...\",\"status\":\"RUNNING\",\"statusUrl\":\"/api/transactions/sync/3f2b...\",\"eventsUrl\":\"/api/transactions/sync/3f2b.../events\"}")
                             )
                     ),
                     @ApiResponse(
                             responseCode = "500",
-                            description = "Failed to sync transactions",
+                            description = "Failed to start transaction sync",
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(example = "{\"error\":\"Failed to sync transactions\"}")
@@ -59,41 +70,84 @@ public class TransactionController {
             }
     )
     @PostMapping("/sync")
-    public ResponseEntity<?> syncTransactions(@AuthenticationPrincipal Object principal) {
+    public ResponseEntity<?> syncTransactions(AuthenticatedUser user) {
         try {
-            String username = principal instanceof UserDetails
-                    ? ((UserDetails) principal).getUsername()
-                    : principal.toString();
+            SyncJob job = syncJobService.start(user.id());
+            String statusUrl = "/api/transactions/sync/" + job.getId();
 
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException(username));
+            return ResponseEntity.accepted()
+                    .location(URI.create(statusUrl))
+                    .body(Map.of(
+                            "jobId", job.getId(),
+                            "status", job.snapshot().status(),
+                            "statusUrl", statusUrl,
+                            "eventsUrl", statusUrl + "/events"
+                    ));
 
-            List<Transaction> transactions = transactionService.fetchAndSaveTransactions(user.getId());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to sync transactions: " + e.getMessage()));
+        }
+    }
 
-            if (transactions.isEmpty()) {
-                return ResponseEntity.ok(Map.of("message", "No new transactions found"));
+    @Operation(
+            summary = "Get Sync Job Status",
+            description = "Retrieve the progress of a transaction sync job started by the authenticated user",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully retrieved sync job status",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = SyncJobStatus.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Sync job not found"
+                    )
             }
+    )
+    @GetMapping("/sync/{jobId}")
+    public ResponseEntity<SyncJobStatus> getSyncJobStatus(
+            AuthenticatedUser user,
+            @PathVariable String jobId) {
 
-            List<TransactionDto> transactionsDto = new ArrayList<>();
-            for (Transaction tx : transactions) {
-                transactionsDto.add(TransactionMapper.toDto(tx));
-            }
+        return syncJobService.find(jobId, user.id())
+                .map(job -> ResponseEntity.ok(job.snapshot()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-            return ResponseEntity.ok(Map.of(
-                    "message", "Transactions synced successfully",
-                    "transactionCount", transactionsDto.size(),
-                    "transactions", transactionsDto
-            ));
+    @Operation(
+            summary = "Stream Sync Job Progress",
+            description = "Subscribe to Server-Sent Events carrying the progress of a transaction sync job. " +
+                    "The stream closes once the job has finished.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Progress event stream",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Sync job not found"
+                    )
+            }
+    )
+    @GetMapping(value = "/sync/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSyncJobProgress(
+            AuthenticatedUser user,
+            @PathVariable String jobId) {
 
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to sync transactions: " + e.getMessage()));
-        }
+        return syncJobService.find(jobId, user.id())
+                .map(job -> ResponseEntity.ok(syncJobService.subscribe(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @Operation(
             summary = "Get User Transactions",
-            description = "Retrieve all transactions for the authenticated user",
+            description = "Retrieve all transactions for the authenticated user. " +
+                    "Pass fields=id,transactionDate,amount,... to receive only those fields",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -114,32 +168,180 @@ public class TransactionController {
             }
     )
     @GetMapping("/")
-    public ResponseEntity<?> getUserTransactions(@AuthenticationPrincipal Object principal) {
+    public ResponseEntity<?> getUserTransactions(
+            AuthenticatedUser user,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+
         try {
-            String username = principal instanceof UserDetails
-                    ? ((UserDetails) principal).getUsername()
-                    : principal.toString();
+            TransactionFields selected = TransactionFields.parse(fields);
 
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException(username));
+            String etag = dataVersionService.etag(user.id(),
+                    ConditionalResponses.variant("transactions?fields=" + fields, request));
+            if (request.checkNotModified(etag)) {
+                return ConditionalResponses.notModified(etag);
+            }
 
-            List<Transaction> transactions = transactionService.getUserTransactions(user.getId());
+            return ConditionalResponses.ok(etag)
+                    .body(selected == null
+                            ? transactionService.getUserTransactions(user.id())
+                            : transactionService.getUserTransactionFields(user.id(), selected, null, null, null));
 
-            List<TransactionDto> transactionDtos = transactions.stream()
-                    .sorted(Comparator.comparing(Transaction::getId))
-                    .map(TransactionMapper::toDto)
-                    .collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to retrieve transactions"));
+        }
+    }
 
-            return ResponseEntity.ok(transactionDtos);
+    @Operation(
+            summary = "Get User Transactions Page",
+            description = "Retrieve one page of the authenticated user's transactions, newest first. " +
+                    "Pass the returned nextCursor to fetch the following page and fields=... to receive only those fields.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully retrieved transactions page",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = TransactionPage.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "object", example = "{\"error\": \"Invalid cursor\"}")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Failed to retrieve transactions",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "object", example = "{\"error\": \"Failed to retrieve transactions\"}")
+                            )
+                    )
+            }
+    )
+    @GetMapping("/page")
+    public ResponseEntity<?> getUserTransactionsPage(
+            AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) String fields) {
 
+        try {
+            return ResponseEntity.ok(transactionService.getUserTransactionsPage(
+                    user.id(), cursor, limit, startDate, endDate, type, TransactionFields.parse(fields)));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to retrieve transactions"));
         }
     }
 
+    @Operation(
+            summary = "Search User Transactions",
+            description = "Search the authenticated user's transactions by description, creditor and debtor name. " +
+                    "Results are ranked; words match as prefixes and small typos are tolerated.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successfully searched transactions",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = TransactionSearchPage.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid search query",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "object", example = "{\"error\": \"Search query must contain letters or digits\"}")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Failed to search transactions",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(type = "object", example = "{\"error\": \"Failed to search transactions\"}")
+                            )
+                    )
+            }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUserTransactions(
+            AuthenticatedUser user,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+
+        try {
+            return ResponseEntity.ok(transactionService.searchTransactions(
+                    user.id(), q, page, size, TransactionFields.parse(fields)));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to search transactions"));
+        }
+    }
+
+    @Operation(
+            summary = "Export User Transactions",
+            description = "Stream all transactions of the authenticated user as CSV or NDJSON (format=csv|ndjson)",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Transaction export stream",
+                            content = {
+                                    @Content(mediaType = "text/csv"),
+                                    @Content(mediaType = "application/x-ndjson")
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unsupported export format"
+                    )
+            }
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            AuthenticatedUser user,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long userId = user.id();
+        StreamingResponseBody body = out -> exportService.exportTransactions(userId, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @Operation(
             summary = "Get User Transactions by Date Range",
-            description = "Retrieve transactions for the authenticated user within a specified date range",
+            description = "Retrieve transactions for the authenticated user within a specified date range. " +
+                    "Pass fields=id,transactionDate,amount,... to receive only those fields",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -160,29 +362,32 @@ public class TransactionController {
             }
     )
     @GetMapping("/date-range")
-    public ResponseEntity<List<TransactionDto>> getUserTransactionsByDateRange(
-            @AuthenticationPrincipal Object principal,
+    public ResponseEntity<List<?>> getUserTransactionsByDateRange(
+            AuthenticatedUser user,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
 
         try {
-            String username = principal instanceof UserDetails
-                    ? ((UserDetails) principal).getUsername()
-                    : principal.toString();
-
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException(username));
+            TransactionFields selected = TransactionFields.parse(fields);
 
-            List<Transaction> transactions = transactionService.getUserTransactionsByDateRange(
-                    user.getId(), startDate, endDate);
-
-            List<TransactionDto> transactionDtos = new ArrayList<>();
-            for (Transaction tx : transactions) {
-                transactionDtos.add(TransactionMapper.toDto(tx));
+            String etag = dataVersionService.etag(user.id(),
+                    ConditionalResponses.variant(
+                            "transactions/date-range:" + startDate + ":" + endDate + "?fields=" + fields, request));
+            if (request.checkNotModified(etag)) {
+                return ConditionalResponses.notModified(etag);
             }
 
-            return ResponseEntity.ok(transactionDtos);
+            List<?> transactions = selected == null
+                    ? transactionService.getUserTransactionsByDateRange(user.id(), startDate, endDate)
+                    : transactionService.getUserTransactionFields(user.id(), selected, startDate, endDate, null);
+
+            return ConditionalResponses.ok(etag)
+                    .body(transactions);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -190,7 +395,8 @@ public class TransactionController {
 
     @Operation(
             summary = "Get User Transactions by Type",
-            description = "Retrieve transactions for the authenticated user filtered by transaction type",
+            description = "Retrieve transactions for the authenticated user filtered by transaction type. " +
+                    "Pass fields=id,transactionDate,amount,... to receive only those fields",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -211,28 +417,30 @@ public class TransactionController {
             }
     )
     @GetMapping("/type/{transactionType}")
-    public ResponseEntity<List<TransactionDto>> getUserTransactionsByType(
-            @AuthenticationPrincipal Object principal,
-            @PathVariable Transaction.TransactionType transactionType) {
+    public ResponseEntity<List<?>> getUserTransactionsByType(
+            AuthenticatedUser user,
+            @PathVariable Transaction.TransactionType transactionType,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
 
         try {
-            String username = principal instanceof UserDetails
-                    ? ((UserDetails) principal).getUsername()
-                    : principal.toString();
+            TransactionFields selected = TransactionFields.parse(fields);
 
-            Users user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException(username));
-
-            List<Transaction> transactions = transactionService.getUserTransactionsByType(
-                    user.getId(), transactionType);
-
-            List<TransactionDto> transactionDtos = new ArrayList<>();
-            for (Transaction tx : transactions) {
-                transactionDtos.add(TransactionMapper.toDto(tx));
+            String etag = dataVersionService.etag(user.id(),
+                    ConditionalResponses.variant("transactions/type:" + transactionType + "?fields=" + fields, request));
+            if (request.checkNotModified(etag)) {
+                return ConditionalResponses.notModified(etag);
             }
 
-            return ResponseEntity.ok(transactionDtos);
+            List<?> transactions = selected == null
+                    ? transactionService.getUserTransactionsByType(user.id(), transactionType)
+                    : transactionService.getUserTransactionFields(user.id(), selected, null, null, transactionType);
+
+            return ConditionalResponses.ok(etag)
+                    .body(transactions);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -0,0 +1,7 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Category;
+
+import java.time.LocalDateTime;
+
+public record ExpenseFact(LocalDateTime date, Long amount, Category category, String description) {}
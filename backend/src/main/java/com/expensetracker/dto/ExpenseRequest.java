@@ -0,0 +1,7 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Category;
+
+import java.time.LocalDateTime;
+
+public record ExpenseRequest(Category category, Long amount, String description, LocalDateTime date) {}
@@ -0,0 +1,5 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+
+public record FactAggregate(String key, String currency, BigDecimal total, long count) {}
@@ -0,0 +1,14 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SpendingRollupRow(
+        LocalDate periodStart,
+        String source,
+        String category,
+        String currency,
+        String transactionType,
+        BigDecimal totalAmount,
+        long count
+) {}
@@ -0,0 +1,23 @@
+package com.expensetracker.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record SyncJobStatus(
+        String jobId,
+        String status,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        int transactionCount,
+        List<ConnectionProgress> connections,
+        String error
+) {
+    public record ConnectionProgress(
+            String requisitionId,
+            String status,
+            int accountsTotal,
+            int accountsSynced,
+            int transactionCount,
+            List<String> errors
+    ) {}
+}
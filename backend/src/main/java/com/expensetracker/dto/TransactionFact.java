@@ -0,0 +1,16 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record TransactionFact(
+        LocalDate transactionDate,
+        BigDecimal amount,
+        String currency,
+        Transaction.TransactionType transactionType,
+        String creditorName,
+        String debtorName,
+        String description
+) {}
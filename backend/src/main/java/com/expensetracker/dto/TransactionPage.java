@@ -0,0 +1,9 @@
+package com.expensetracker.dto;
+
+import java.util.List;
+
+public record TransactionPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -0,0 +1,10 @@
+package com.expensetracker.dto;
+
+import java.util.List;
+
+public record TransactionSearchPage<T>(
+        List<T> items,
+        int page,
+        int size,
+        boolean hasMore
+) {}
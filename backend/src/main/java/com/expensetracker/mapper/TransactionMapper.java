@@ -1,5 +1,6 @@
 package com.expensetracker.mapper;
 
+import com.expensetracker.client.BankTransaction;
 import com.expensetracker.dto.TransactionDto;
 import com.expensetracker.model.BankConnection;
 import com.expensetracker.model.Transaction;
@@ -66,8 +67,42 @@ public class TransactionMapper {
                 .balanceAfterTransaction(dto.balanceAfterTransaction())
                 .transactionType(dto.transactionType())
                 .bankConnection(bankConnection)
+                .user(bankConnection != null ? bankConnection.getUser() : null)
                 .createdAt(dto.createdAt())
                 .updatedAt(dto.updatedAt())
                 .build();
     }
+
+    public static Transaction toEntity(BankTransaction bankTransaction, String accountId, BankConnection bankConnection) {
+        // Rows without a booking date are still pending; banks often reissue their id once
+        // booked, so they are skipped and picked up on a later sync instead
+        if (bankTransaction.transactionId() == null || bankTransaction.bookingDate() == null) {
+            return null;
+        }
+
+        Transaction.TransactionType type = bankTransaction.amount().signum() >= 0
+                ? Transaction.TransactionType.CREDIT
+                : Transaction.TransactionType.DEBIT;
+
+        return Transaction.builder()
+                .transactionId(bankTransaction.transactionId())
+                .accountId(accountId)
+                .bankConnection(bankConnection)
+                .user(bankConnection.getUser())
+                .amount(bankTransaction.amount().abs())
+                .currency(bankTransaction.currency())
+                .description(bankTransaction.description())
+                .transactionDate(bankTransaction.bookingDate())
+                .bookingDate(bankTransaction.bookingDate())
+                .valueDate(bankTransaction.valueDate())
+                .creditorName(bankTransaction.creditorName())
+                .debtorName(bankTransaction.debtorName())
+                .creditorAccount(bankTransaction.creditorAccount())
+                .debtorAccount(bankTransaction.debtorAccount())
+                .transactionCode(bankTransaction.bankTransactionCode())
+                .proprietaryBankTransactionCode(bankTransaction.proprietaryBankTransactionCode())
+                .balanceAfterTransaction(bankTransaction.balanceAfterTransaction())
+                .transactionType(type)
+                .build();
+    }
 }
@@ -0,0 +1,60 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "account_sync_cursors",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_account_sync_cursor_connection_account",
+                columnNames = {"bank_connection_id", "account_id"}
+        )
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSyncCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(
+            name = "bank_connection_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "fk_account_sync_cursor_bank_connection")
+    )
+    private BankConnection bankConnection;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "last_booked_date")
+    private LocalDate lastBookedDate;
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    // Newline-separated IDs of the booked rows inside the overlap window of the last sync
+    @Column(name = "last_seen_transaction_ids", columnDefinition = "text")
+    private String lastSeenTransactionIds;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
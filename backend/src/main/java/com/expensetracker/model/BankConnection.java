@@ -42,6 +42,13 @@ public class BankConnection {
     @Column(name = "reference", nullable = false)
     private String reference;
 
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    // Set on every sync attempt, successful or not, so failing connections back off
+    @Column(name = "last_attempted_at")
+    private LocalDateTime lastAttemptedAt;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
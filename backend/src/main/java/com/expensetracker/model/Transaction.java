@@ -20,8 +20,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
 
+    // Assigned from transactions_seq by TransactionInsertRepository, which writes all rows
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(name = "transaction_id", unique = true, nullable = false)
@@ -38,6 +38,15 @@ public class Transaction {
     )
     private BankConnection bankConnection;
 
+    // Copied from bankConnection.user so user-scoped reads avoid the join
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(
+            name = "user_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "fk_transaction_user")
+    )
+    private Users user;
+
     @Column(name = "amount", nullable = false, precision = 19, scale = 2)
     private BigDecimal amount;
 
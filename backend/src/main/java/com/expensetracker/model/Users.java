@@ -29,9 +29,6 @@ public class Users {
     @Column(name = "password", nullable = false)
     private String password;
 
-    @Column(length = 1000)
-    private String refreshToken;
-
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
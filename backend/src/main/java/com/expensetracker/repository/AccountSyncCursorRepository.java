@@ -0,0 +1,11 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.AccountSyncCursor;
+import com.expensetracker.model.BankConnection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface AccountSyncCursorRepository extends JpaRepository<AccountSyncCursor, Long> {
+    Optional<AccountSyncCursor> findByBankConnectionAndAccountId(BankConnection bankConnection, String accountId);
+}
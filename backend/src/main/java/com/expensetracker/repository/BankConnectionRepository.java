@@ -2,8 +2,14 @@ package com.expensetracker.repository;
 
 import com.expensetracker.model.BankConnection;
 import com.expensetracker.model.Users;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +20,20 @@ public interface BankConnectionRepository
     BankConnection findByRequisitionId(String requisitionId);
     Optional<BankConnection> findByReference(String reference);
     List<BankConnection> findByUserAndStatus(Users user, String status);
+
+    @Query("SELECT c FROM BankConnection c WHERE c.status = 'LINKED' " +
+            "AND (c.lastSyncedAt IS NULL OR c.lastSyncedAt < :cutoff) " +
+            "AND (c.lastAttemptedAt IS NULL OR c.lastAttemptedAt < :cutoff) " +
+            "ORDER BY c.lastAttemptedAt ASC NULLS FIRST, c.id ASC")
+    List<BankConnection> findStaleLinkedConnections(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BankConnection c SET c.lastSyncedAt = :syncedAt WHERE c.id = :id")
+    void updateLastSyncedAt(@Param("id") Long id, @Param("syncedAt") LocalDateTime syncedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BankConnection c SET c.lastAttemptedAt = :attemptedAt WHERE c.id = :id")
+    void updateLastAttemptedAt(@Param("id") Long id, @Param("attemptedAt") LocalDateTime attemptedAt);
 }
@@ -1,14 +1,43 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.ExpenseFact;
+import com.expensetracker.dto.ExpenseResponse;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.model.Users;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     Boolean existsByDescriptionAndUser(String description, Users user);
     List<Expense> findAllByUserAndCategory(Users user, Category category);
     List<Expense> findAllByUserId(Long userId);
+
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.category, e.amount, e.description, e.date) " +
+            "FROM Expense e WHERE e.user.id = :userId")
+    List<ExpenseResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = TransactionRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId ORDER BY e.date DESC, e.id DESC")
+    Stream<Expense> streamByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = TransactionRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.expensetracker.dto.ExpenseFact(e.date, e.amount, e.category, e.description) " +
+            "FROM Expense e WHERE e.user.id = :userId")
+    Stream<ExpenseFact> streamFactsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,46 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Plain insert: save() would merge, and with an assigned id that costs a SELECT first
+    @Modifying
+    @Query(value = "INSERT INTO refresh_tokens (token_hash, user_id, family_id, expires_at, created_at) " +
+            "VALUES (:tokenHash, :userId, :familyId, :expiresAt, :createdAt)",
+            nativeQuery = true)
+    void insert(@Param("tokenHash") String tokenHash,
+                @Param("userId") Long userId,
+                @Param("familyId") UUID familyId,
+                @Param("expiresAt") Instant expiresAt,
+                @Param("createdAt") Instant createdAt);
+
+    /**
+     * Marks a token as used only if nobody else did first.
+     *
+     * @return 1 if this caller rotated the token, 0 if it was already rotated or revoked
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now " +
+            "WHERE t.tokenHash = :tokenHash AND t.rotatedAt IS NULL AND t.revokedAt IS NULL")
+    int markRotated(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
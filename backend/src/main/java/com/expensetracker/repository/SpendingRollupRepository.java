@@ -0,0 +1,80 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.SpendingRollupRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JDBC access to the spending rollup tables. Writes are additive upserts, so the
+ * same statement handles first insert, increments and (negative) decrements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SpendingRollupRepository {
+
+    public enum Granularity {
+        DAILY("spending_rollup_daily"),
+        MONTHLY("spending_rollup_monthly");
+
+        private final String table;
+
+        Granularity(String table) {
+            this.table = table;
+        }
+    }
+
+    public record Delta(Long userId, LocalDate periodStart, String source, String category,
+                        String currency, String transactionType, BigDecimal amount, long count) {}
+
+    private static final RowMapper<SpendingRollupRow> ROW_MAPPER = (rs, rowNum) -> new SpendingRollupRow(
+            rs.getDate("period_start").toLocalDate(),
+            rs.getString("source"),
+            rs.getString("category"),
+            rs.getString("currency"),
+            rs.getString("transaction_type"),
+            rs.getBigDecimal("total_amount"),
+            rs.getLong("entry_count")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void applyDeltas(Granularity granularity, List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO " + granularity.table +
+                " (user_id, period_start, source, category, currency, transaction_type, total_amount, entry_count)" +
+                " VALUES (?, ?, ?, ?, ?, ?, ?, ?)" +
+                " ON CONFLICT (user_id, period_start, source, category, currency, transaction_type)" +
+                " DO UPDATE SET total_amount = " + granularity.table + ".total_amount + EXCLUDED.total_amount," +
+                " entry_count = " + granularity.table + ".entry_count + EXCLUDED.entry_count";
+
+        jdbcTemplate.batchUpdate(sql, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.userId());
+            ps.setDate(2, Date.valueOf(delta.periodStart()));
+            ps.setString(3, delta.source());
+            ps.setString(4, delta.category());
+            ps.setString(5, delta.currency());
+            ps.setString(6, delta.transactionType());
+            ps.setBigDecimal(7, delta.amount());
+            ps.setLong(8, delta.count());
+        });
+    }
+
+    public List<SpendingRollupRow> find(Granularity granularity, Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT period_start, source, category, currency, transaction_type, total_amount, entry_count" +
+                        " FROM " + granularity.table +
+                        " WHERE user_id = ? AND period_start BETWEEN ? AND ? AND entry_count > 0" +
+                        " ORDER BY period_start, source, category, currency, transaction_type",
+                ROW_MAPPER,
+                userId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A validated subset of the {@code TransactionDto} fields requested through
+ * {@code fields=}, in request order, with the JPQL path each one is read from.
+ */
+public final class TransactionFields {
+
+    private static final Map<String, String> PATHS = new LinkedHashMap<>();
+
+    static {
+        PATHS.put("id", "t.id");
+        PATHS.put("transactionId", "t.transactionId");
+        PATHS.put("accountId", "t.accountId");
+        PATHS.put("amount", "t.amount");
+        PATHS.put("currency", "t.currency");
+        PATHS.put("description", "t.description");
+        PATHS.put("transactionDate", "t.transactionDate");
+        PATHS.put("bookingDate", "t.bookingDate");
+        PATHS.put("valueDate", "t.valueDate");
+        PATHS.put("creditorName", "t.creditorName");
+        PATHS.put("debtorName", "t.debtorName");
+        PATHS.put("creditorAccount", "t.creditorAccount");
+        PATHS.put("debtorAccount", "t.debtorAccount");
+        PATHS.put("transactionCode", "t.transactionCode");
+        PATHS.put("proprietaryBankTransactionCode", "t.proprietaryBankTransactionCode");
+        PATHS.put("balanceAfterTransaction", "t.balanceAfterTransaction");
+        PATHS.put("transactionType", "t.transactionType");
+        PATHS.put("institutionId", "bc.institutionId");
+        PATHS.put("bankConnectionStatus", "bc.status");
+        PATHS.put("username", "u.username");
+        PATHS.put("createdAt", "t.createdAt");
+        PATHS.put("updatedAt", "t.updatedAt");
+    }
+
+    private final List<String> names;
+
+    private TransactionFields(List<String> names) {
+        this.names = List.copyOf(names);
+    }
+
+    /**
+     * Parses a comma-separated field list; returns null when none was given.
+     */
+    public static TransactionFields parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : spec.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!PATHS.containsKey(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            names.add(trimmed);
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        return new TransactionFields(new ArrayList<>(names));
+    }
+
+    /**
+     * The same selection plus fields the caller needs internally (e.g. for cursors).
+     */
+    public TransactionFields including(String... required) {
+        Set<String> merged = new LinkedHashSet<>(names);
+        merged.addAll(Arrays.asList(required));
+        return new TransactionFields(new ArrayList<>(merged));
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    String path(String name) {
+        return PATHS.get(name);
+    }
+
+    boolean needsBankConnection() {
+        return names.stream().anyMatch(name -> PATHS.get(name).startsWith("bc."));
+    }
+
+    boolean needsUser() {
+        return names.stream().anyMatch(name -> PATHS.get(name).startsWith("u."));
+    }
+}
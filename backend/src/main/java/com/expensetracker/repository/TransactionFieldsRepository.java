@@ -0,0 +1,30 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Transaction;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse-fieldset reads: selects only the requested columns, joining bank connection
+ * and user only when one of their fields is asked for.
+ */
+public interface TransactionFieldsRepository {
+
+    List<Map<String, Object>> findFields(Long userId, TransactionFields fields, FieldFilter filter);
+
+    @Builder
+    record FieldFilter(
+            LocalDate startDate,
+            LocalDate endDate,
+            Transaction.TransactionType transactionType,
+            LocalDate cursorDate,
+            Long cursorId,
+            Collection<Long> ids,
+            Integer limit,
+            boolean newestFirst
+    ) {}
+}
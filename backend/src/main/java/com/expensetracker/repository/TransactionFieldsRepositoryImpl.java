@@ -0,0 +1,81 @@
+package com.expensetracker.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TransactionFieldsRepositoryImpl implements TransactionFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Long userId, TransactionFields fields, FieldFilter filter) {
+        List<String> names = fields.names();
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                jpql.append(", ");
+            }
+            jpql.append(fields.path(names.get(i))).append(" AS f").append(i);
+        }
+        jpql.append(" FROM Transaction t");
+        if (fields.needsBankConnection()) {
+            jpql.append(" JOIN t.bankConnection bc");
+        }
+        if (fields.needsUser()) {
+            jpql.append(" JOIN t.user u");
+        }
+
+        Map<String, Object> parameters = new HashMap<>();
+        jpql.append(" WHERE t.user.id = :userId");
+        parameters.put("userId", userId);
+        if (filter.startDate() != null) {
+            jpql.append(" AND t.transactionDate >= :startDate");
+            parameters.put("startDate", filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            jpql.append(" AND t.transactionDate <= :endDate");
+            parameters.put("endDate", filter.endDate());
+        }
+        if (filter.transactionType() != null) {
+            jpql.append(" AND t.transactionType = :transactionType");
+            parameters.put("transactionType", filter.transactionType());
+        }
+        if (filter.cursorDate() != null) {
+            jpql.append(" AND (t.transactionDate < :cursorDate OR (t.transactionDate = :cursorDate AND t.id < :cursorId))");
+            parameters.put("cursorDate", filter.cursorDate());
+            parameters.put("cursorId", filter.cursorId());
+        }
+        if (filter.ids() != null) {
+            jpql.append(" AND t.id IN :ids");
+            parameters.put("ids", filter.ids());
+        }
+        jpql.append(filter.newestFirst() ? " ORDER BY t.transactionDate DESC, t.id DESC" : " ORDER BY t.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        parameters.forEach(query::setParameter);
+        if (filter.limit() != null) {
+            query.setMaxResults(filter.limit());
+        }
+
+        List<Tuple> tuples = query.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(names.size() * 2);
+            for (int i = 0; i < names.size(); i++) {
+                row.put(names.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
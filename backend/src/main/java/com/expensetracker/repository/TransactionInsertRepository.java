@@ -0,0 +1,92 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based transaction inserts. Duplicates are resolved by the unique
+ * {@code transaction_id} constraint rather than a prior lookup, so concurrent syncs of
+ * the same account cannot both insert a row or fail on each other's inserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionInsertRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO transactions" +
+            " (id, transaction_id, account_id, bank_connection_id, user_id, amount, currency, description," +
+            " transaction_date, booking_date, value_date, creditor_name, debtor_name, creditor_account," +
+            " debtor_account, transaction_code, proprietary_bank_transaction_code, balance_after_transaction," +
+            " transaction_type, created_at, updated_at) VALUES ";
+    private static final String ROW_VALUES =
+            "(nextval('transactions_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT (transaction_id) DO NOTHING RETURNING transaction_id, id";
+    // 20 bind parameters per row; stays well under the driver's 32767-parameter limit
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the transactions with multi-row statements, skipping those whose
+     * {@code transaction_id} is already stored.
+     *
+     * @return the generated id of each inserted row, keyed by transaction id
+     */
+    public Map<String, Long> insertIgnoringDuplicates(List<Transaction> transactions, LocalDateTime now) {
+        Map<String, Long> insertedIds = new HashMap<>();
+        for (int from = 0; from < transactions.size(); from += MAX_ROWS_PER_STATEMENT) {
+            int to = Math.min(from + MAX_ROWS_PER_STATEMENT, transactions.size());
+            insertChunk(transactions.subList(from, to), Timestamp.valueOf(now), insertedIds);
+        }
+        return insertedIds;
+    }
+
+    private void insertChunk(List<Transaction> transactions, Timestamp createdAt, Map<String, Long> insertedIds) {
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(transactions.size(), ROW_VALUES))
+                + INSERT_SUFFIX;
+
+        List<Object> args = new ArrayList<>(transactions.size() * 20);
+        for (Transaction transaction : transactions) {
+            args.add(transaction.getTransactionId());
+            args.add(transaction.getAccountId());
+            args.add(transaction.getBankConnection().getId());
+            args.add(transaction.getUser().getId());
+            args.add(transaction.getAmount());
+            args.add(transaction.getCurrency());
+            args.add(transaction.getDescription());
+            args.add(toDate(transaction.getTransactionDate()));
+            args.add(toDate(transaction.getBookingDate()));
+            args.add(toDate(transaction.getValueDate()));
+            args.add(transaction.getCreditorName());
+            args.add(transaction.getDebtorName());
+            args.add(transaction.getCreditorAccount());
+            args.add(transaction.getDebtorAccount());
+            args.add(transaction.getTransactionCode());
+            args.add(transaction.getProprietaryBankTransactionCode());
+            args.add(transaction.getBalanceAfterTransaction());
+            args.add(transaction.getTransactionType().name());
+            args.add(createdAt);
+            args.add(createdAt);
+        }
+
+        jdbcTemplate.query(sql, rs -> {
+            insertedIds.put(rs.getString("transaction_id"), rs.getLong("id"));
+        }, args.toArray());
+    }
+
+    private static Date toDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+}
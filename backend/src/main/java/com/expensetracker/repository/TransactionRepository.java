@@ -1,41 +1,132 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.TransactionDto;
+import com.expensetracker.dto.TransactionFact;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.BankConnection;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionFieldsRepository {
+
+    /**
+     * Read-side projection for list endpoints: builds {@link TransactionDto} rows straight
+     * from one joined select, so no managed entities, snapshots or lazy loads are involved.
+     */
+    String TRANSACTION_DTO_SELECT = "SELECT new com.expensetracker.dto.TransactionDto(" +
+            "t.id, t.transactionId, t.accountId, t.amount, t.currency, t.description, " +
+            "t.transactionDate, t.bookingDate, t.valueDate, t.creditorName, t.debtorName, " +
+            "t.creditorAccount, t.debtorAccount, t.transactionCode, t.proprietaryBankTransactionCode, " +
+            "t.balanceAfterTransaction, t.transactionType, bc.institutionId, bc.status, u.username, " +
+            "t.createdAt, t.updatedAt) " +
+            "FROM Transaction t JOIN t.bankConnection bc JOIN t.user u ";
+
+    /** Rows per JDBC round-trip for export streams. */
+    String EXPORT_FETCH_SIZE = "500";
 
     Optional<Transaction> findByTransactionId(String transactionId);
 
     List<Transaction> findByBankConnection(BankConnection bankConnection);
 
-    @Query("SELECT t FROM Transaction t JOIN FETCH t.bankConnection WHERE t.bankConnection.user.id = :userId")
-    List<Transaction> findByUserId(@Param("userId") Long userId);
-
-    @Query("SELECT t FROM Transaction t WHERE t.bankConnection.user.id = :userId ORDER BY t.transactionDate DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.transactionDate DESC")
     Page<Transaction> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT t FROM Transaction t WHERE t.bankConnection.user.id = :userId " +
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId ORDER BY t.id")
+    List<TransactionDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId " +
             "AND t.transactionDate BETWEEN :startDate AND :endDate " +
             "ORDER BY t.transactionDate DESC")
-    List<Transaction> findByUserIdAndDateRange(@Param("userId") Long userId,
-                                               @Param("startDate") LocalDate startDate,
-                                               @Param("endDate") LocalDate endDate);
+    List<TransactionDto> findDtosByUserIdAndDateRange(@Param("userId") Long userId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT t FROM Transaction t WHERE t.bankConnection.user.id = :userId " +
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId " +
             "AND t.transactionType = :transactionType " +
             "ORDER BY t.transactionDate DESC")
-    List<Transaction> findByUserIdAndTransactionType(@Param("userId") Long userId,
-                                                     @Param("transactionType") Transaction.TransactionType transactionType);
-}
\ No newline at end of file
+    List<TransactionDto> findDtosByUserIdAndTransactionType(@Param("userId") Long userId,
+                                                            @Param("transactionType") Transaction.TransactionType transactionType);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND (t.transactionDate < :cursorDate OR (t.transactionDate = :cursorDate AND t.id < :cursorId)) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDto> findPageByUserId(@Param("userId") Long userId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("cursorDate") LocalDate cursorDate,
+                                          @Param("cursorId") Long cursorId,
+                                          Limit limit);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.user.id = :userId " +
+            "AND t.transactionType = :transactionType " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "AND (t.transactionDate < :cursorDate OR (t.transactionDate = :cursorDate AND t.id < :cursorId)) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDto> findPageByUserIdAndTransactionType(@Param("userId") Long userId,
+                                                            @Param("transactionType") Transaction.TransactionType transactionType,
+                                                            @Param("startDate") LocalDate startDate,
+                                                            @Param("endDate") LocalDate endDate,
+                                                            @Param("cursorDate") LocalDate cursorDate,
+                                                            @Param("cursorId") Long cursorId,
+                                                            Limit limit);
+
+    /**
+     * Cursor-backed stream for exports; must be consumed inside a transaction so the
+     * driver honours the fetch size instead of buffering the whole result.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.bankConnection bc JOIN FETCH bc.user " +
+            "WHERE t.user.id = :userId ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<Transaction> streamByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.expensetracker.dto.TransactionFact(t.transactionDate, t.amount, t.currency, " +
+            "t.transactionType, t.creditorName, t.debtorName, t.description) " +
+            "FROM Transaction t WHERE t.user.id = :userId")
+    Stream<TransactionFact> streamFactsByUserId(@Param("userId") Long userId);
+
+    @Query(TRANSACTION_DTO_SELECT + "WHERE t.id IN :ids")
+    List<TransactionDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ranked search over counterparties and description. {@code tsQuery} matches whole
+     * words and prefixes through the tsvector index; {@code term} adds typo-tolerant
+     * matches through the trigram index. Returns ids only; rows are loaded separately.
+     */
+    @Query(value = "SELECT t.id FROM transactions t " +
+            "WHERE t.user_id = :userId " +
+            "AND (t.search_vector @@ to_tsquery('simple', :tsQuery) OR :term <% t.search_text) " +
+            "ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :tsQuery)) " +
+            "+ word_similarity(:term, t.search_text) DESC, t.transaction_date DESC, t.id DESC " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Long> searchIds(@Param("userId") Long userId,
+                         @Param("tsQuery") String tsQuery,
+                         @Param("term") String term,
+                         @Param("limit") int limit,
+                         @Param("offset") int offset);
+}
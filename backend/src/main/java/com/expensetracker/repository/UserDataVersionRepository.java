@@ -0,0 +1,21 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.UserDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, Long> {
+
+    @Query("SELECT v.version FROM UserDataVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_data_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = user_data_versions.version + 1",
+            nativeQuery = true)
+    void increment(@Param("userId") Long userId);
+}
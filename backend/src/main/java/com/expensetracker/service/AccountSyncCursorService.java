@@ -0,0 +1,115 @@
+package com.expensetracker.service;
+
+import com.expensetracker.client.BankTransaction;
+import com.expensetracker.model.AccountSyncCursor;
+import com.expensetracker.model.BankConnection;
+import com.expensetracker.repository.AccountSyncCursorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-account sync watermark so later syncs only request a
+ * {@code date_from} window instead of the full transaction history.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountSyncCursorService {
+    private static final String ID_SEPARATOR = "\n";
+
+    private final AccountSyncCursorRepository cursorRepository;
+
+    @Value("${sync.incremental.overlap-days}")
+    private int overlapDays;
+
+    @Value("${sync.incremental.max-seen-ids}")
+    private int maxSeenIds;
+
+    public AccountSyncCursor load(BankConnection connection, String accountId) {
+        return cursorRepository.findByBankConnectionAndAccountId(connection, accountId)
+                .orElseGet(() -> AccountSyncCursor.builder()
+                        .bankConnection(connection)
+                        .accountId(accountId)
+                        .build());
+    }
+
+    /**
+     * Start of the window to request, reaching a few days behind the watermark to
+     * pick up rows that were booked late. {@code null} means a full download.
+     */
+    public LocalDate dateFrom(AccountSyncCursor cursor) {
+        return cursor.getLastBookedDate() != null ? cursor.getLastBookedDate().minusDays(overlapDays) : null;
+    }
+
+    public Set<String> lastSeenIds(AccountSyncCursor cursor) {
+        if (cursor.getLastSeenTransactionIds() == null || cursor.getLastSeenTransactionIds().isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(Arrays.asList(cursor.getLastSeenTransactionIds().split(ID_SEPARATOR)));
+    }
+
+    public WatermarkTracker tracker(AccountSyncCursor cursor) {
+        return new WatermarkTracker(cursor.getLastBookedDate(), overlapDays);
+    }
+
+    public void advance(AccountSyncCursor cursor, WatermarkTracker tracker) {
+        if (tracker.sawBookedRows) {
+            Set<String> seenIds = new LinkedHashSet<>();
+            for (List<String> ids : tracker.overlapIds.descendingMap().values()) {
+                for (String id : ids) {
+                    if (seenIds.size() >= maxSeenIds) {
+                        break;
+                    }
+                    seenIds.add(id);
+                }
+            }
+            cursor.setLastSeenTransactionIds(String.join(ID_SEPARATOR, seenIds));
+        }
+
+        cursor.setLastBookedDate(tracker.watermark);
+        cursor.setLastSyncedAt(LocalDateTime.now());
+        cursorRepository.save(cursor);
+    }
+
+    /**
+     * Follows the booked rows of one download as they stream past, keeping only the
+     * newest booking date and the IDs that fall inside its overlap window.
+     */
+    public static final class WatermarkTracker {
+        private final int overlapDays;
+        private final TreeMap<LocalDate, List<String>> overlapIds = new TreeMap<>();
+        private LocalDate watermark;
+        private boolean sawBookedRows;
+
+        private WatermarkTracker(LocalDate watermark, int overlapDays) {
+            this.watermark = watermark;
+            this.overlapDays = overlapDays;
+        }
+
+        public void record(BankTransaction transaction) {
+            LocalDate bookingDate = transaction.bookingDate();
+            if (!transaction.booked() || bookingDate == null) {
+                return;
+            }
+            sawBookedRows = true;
+            if (watermark == null || bookingDate.isAfter(watermark)) {
+                watermark = bookingDate;
+            }
+
+            LocalDate overlapStart = watermark.minusDays(overlapDays);
+            if (transaction.transactionId() != null && !bookingDate.isBefore(overlapStart)) {
+                overlapIds.computeIfAbsent(bookingDate, date -> new ArrayList<>()).add(transaction.transactionId());
+            }
+            overlapIds.headMap(overlapStart).clear();
+        }
+    }
+}
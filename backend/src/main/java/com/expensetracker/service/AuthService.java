@@ -1,41 +1,37 @@
 package com.expensetracker.service;
 
 import com.expensetracker.auth.JwtService;
+import com.expensetracker.auth.PasswordHasher;
+import com.expensetracker.auth.PasswordHashingOverloadedException;
+import com.expensetracker.auth.RefreshTokenService;
 import com.expensetracker.dto.AuthRequest;
 import com.expensetracker.dto.AuthResponse;
 import com.expensetracker.model.Users;
 import com.expensetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtService jwtService;
-    private final AuthenticationManager authManager;
+    private final PasswordHasher passwordHasher;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthResponse login(AuthRequest request) {
-        Authentication authentication = authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password())
-        );
-        if (authentication == null) {
-            throw new RuntimeException("Invalid credentials");
-        }
-        Users user = userRepository.findByUsername(request.username())
-                .orElseThrow(() -> new BadCredentialsException("User not found"));
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
+        // One BCrypt comparison per attempt; unknown users are compared against a dummy hash
+        Users user = userRepository.findByUsername(request.username()).orElse(null);
+        if (!passwordHasher.matches(request.password(), user != null ? user.getPassword() : null)) {
+            throw new BadCredentialsException("Invalid credentials");
         }
-        JwtService.TokenPair tokens = jwtService.generateTokenPair(user);
+        upgradePasswordHash(user, request.password());
+
+        JwtService.TokenPair tokens = refreshTokenService.issue(user);
 
         return new AuthResponse(
                 tokens.accessToken(),
@@ -53,8 +49,24 @@ public class AuthService {
         Users user = Users.builder()
                 .username(request.username())
                 .email(request.email())
-                .password(passwordEncoder.encode(request.password()))
+                .password(passwordHasher.encode(request.password()))
                 .build();
         userRepository.save(user);
     }
+
+    /**
+     * Re-hashes with the configured cost once the password is known to be correct.
+     * Skipped under load; the next login tries again.
+     */
+    private void upgradePasswordHash(Users user, String rawPassword) {
+        if (!passwordHasher.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            userRepository.save(user);
+        } catch (PasswordHashingOverloadedException e) {
+            log.debug("Deferred password hash upgrade for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
 }
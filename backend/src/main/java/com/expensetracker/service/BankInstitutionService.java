@@ -1,66 +1,82 @@
 package com.expensetracker.service;
 
+import com.expensetracker.client.GoCardlessClient;
 import com.expensetracker.dto.BankDTO;
 import com.expensetracker.model.BankConnection;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Institution lists and details barely change, so they are served from bounded
+ * in-memory caches. Entries older than {@code refresh-after} are still returned
+ * while a single background reload runs, concurrent misses for the same key share
+ * one upstream call, and hit/miss statistics are exported as cache metrics.
+ */
 @Service
-@RequiredArgsConstructor
 public class BankInstitutionService {
-    private final RestTemplate restTemplate;
-    private final GoCardlessAuthService authService;
+    private final GoCardlessClient goCardlessClient;
+    private final LoadingCache<String, List<BankDTO>> institutionsByCountry;
+    private final LoadingCache<String, BankDTO> institutionDetails;
 
-    public List<BankDTO> getSupportedBanks(String countryCode) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(authService.getAccessToken());
+    public BankInstitutionService(
+            GoCardlessClient goCardlessClient,
+            MeterRegistry meterRegistry,
+            @Value("${gocardless.cache.ttl}") Duration ttl,
+            @Value("${gocardless.cache.refresh-after}") Duration refreshAfter,
+            @Value("${gocardless.cache.max-countries}") long maxCountries,
+            @Value("${gocardless.cache.max-institutions}") long maxInstitutions) {
+        this.goCardlessClient = goCardlessClient;
 
-        ResponseEntity<BankDTO[]> response = restTemplate.exchange(
-                "https://bankaccountdata.gocardless.com/api/v2/institutions/?country=" + countryCode,
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                BankDTO[].class);
+        this.institutionsByCountry = Caffeine.newBuilder()
+                .maximumSize(maxCountries)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(this::fetchSupportedBanks);
+        this.institutionDetails = Caffeine.newBuilder()
+                .maximumSize(maxInstitutions)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(this::fetchBankDetails);
 
-        return Arrays.asList(response.getBody());
+        CaffeineCacheMetrics.monitor(meterRegistry, institutionsByCountry, "gocardless.institutions");
+        CaffeineCacheMetrics.monitor(meterRegistry, institutionDetails, "gocardless.institution-details");
     }
 
-    public BankDTO getBankDetails(String bankId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(authService.getAccessToken());
-
-            ResponseEntity<BankDTO> response = restTemplate.exchange(
-                    "https://bankaccountdata.gocardless.com/api/v2/institutions/" + bankId + "/",
-                    HttpMethod.GET,
-                    new HttpEntity<>(headers),
-                    BankDTO.class);
+    public List<BankDTO> getSupportedBanks(String countryCode) {
+        return institutionsByCountry.get(countryCode.toUpperCase(Locale.ROOT));
+    }
 
-            return response.getBody();
-        } catch (HttpClientErrorException e) {
-            throw new RuntimeException("Failed to fetch bank details: " + e.getMessage());
-        }
+    public BankDTO getBankDetails(String bankId) {
+        return institutionDetails.get(bankId);
     }
 
     public Map<String, Object> getTransactions(List<BankConnection> connections){
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(authService.getAccessToken());
+        return goCardlessClient.get("/transactions/", Map.class);
+    }
 
-        ResponseEntity<Map> response = restTemplate.exchange(
-                "https://bankaccountdata.gocardless.com/api/v2/transactions/",
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                Map.class);
+    private List<BankDTO> fetchSupportedBanks(String countryCode) {
+        BankDTO[] banks = goCardlessClient.get("/institutions/?country={country}", BankDTO[].class, countryCode);
+
+        return banks != null ? List.of(banks) : List.of();
+    }
 
-        return response.getBody();
+    private BankDTO fetchBankDetails(String bankId) {
+        try {
+            return goCardlessClient.get("/institutions/{bankId}/", BankDTO.class, bankId);
+        } catch (HttpClientErrorException e) {
+            throw new RuntimeException("Failed to fetch bank details: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BankConnection;
+import com.expensetracker.repository.BankConnectionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically refreshes linked connections whose data is older than the configured
+ * age. Each run takes the stalest connections, interleaves them round-robin across
+ * users so no single user monopolises a run, and spreads the work over the run
+ * interval with jitter to keep upstream and database load flat. Delayed syncs wait on
+ * a timer and only take an executor thread once they are due.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sync.scheduler.enabled", havingValue = "true")
+public class BankSyncScheduler {
+    private final BankConnectionRepository bankConnectionRepository;
+    private final TransactionService transactionService;
+    private final ExecutorService bankSyncExecutor;
+    private final ScheduledExecutorService bankSyncTimer;
+
+    private final Set<Long> queuedConnections = ConcurrentHashMap.newKeySet();
+
+    @Value("${sync.scheduler.interval}")
+    private Duration interval;
+
+    @Value("${sync.scheduler.max-age}")
+    private Duration maxAge;
+
+    @Value("${sync.scheduler.batch-size}")
+    private int batchSize;
+
+    @Value("${sync.scheduler.max-concurrent}")
+    private int maxConcurrent;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Scheduled(initialDelayString = "${sync.scheduler.interval}", fixedDelayString = "${sync.scheduler.interval}")
+    public void syncStaleConnections() {
+        List<BankConnection> stale = bankConnectionRepository.findStaleLinkedConnections(
+                LocalDateTime.now().minus(maxAge), PageRequest.of(0, batchSize));
+        List<BankConnection> ordered = interleaveByUser(stale);
+        if (ordered.isEmpty()) {
+            return;
+        }
+
+        long slotMillis = interval.toMillis() / ordered.size();
+        int scheduled = 0;
+        for (BankConnection connection : ordered) {
+            if (!queuedConnections.add(connection.getId())) {
+                continue;
+            }
+            long delayMillis = scheduled * slotMillis + ThreadLocalRandom.current().nextLong(Math.max(slotMillis, 1));
+            try {
+                bankSyncTimer.schedule(() -> dispatch(connection), delayMillis, TimeUnit.MILLISECONDS);
+                scheduled++;
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                queuedConnections.remove(connection.getId());
+                return;
+            }
+        }
+        log.info("Scheduled background sync of {} stale bank connections", scheduled);
+    }
+
+    private void dispatch(BankConnection connection) {
+        try {
+            bankSyncExecutor.execute(() -> sync(connection));
+        } catch (RejectedExecutionException e) {
+            queuedConnections.remove(connection.getId());
+        }
+    }
+
+    private void sync(BankConnection connection) {
+        try {
+            permits.acquire();
+            try {
+                TransactionService.SyncResult result = transactionService.syncConnection(connection);
+                if (!result.failures().isEmpty()) {
+                    log.warn("Background sync of connection {} finished with {} failures",
+                            connection.getRequisitionId(), result.failures().size());
+                }
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Background sync of connection {} failed: {}", connection.getRequisitionId(), e.getMessage());
+        } finally {
+            queuedConnections.remove(connection.getId());
+        }
+    }
+
+    /**
+     * Keeps the staleness order within each user but takes one connection per user
+     * per round, so users with many connections cannot starve the others.
+     */
+    private static List<BankConnection> interleaveByUser(List<BankConnection> connections) {
+        Map<Long, Deque<BankConnection>> byUser = new LinkedHashMap<>();
+        for (BankConnection connection : connections) {
+            byUser.computeIfAbsent(connection.getUser().getId(), id -> new ArrayDeque<>()).add(connection);
+        }
+
+        List<BankConnection> ordered = new ArrayList<>(connections.size());
+        while (!byUser.isEmpty()) {
+            byUser.values().removeIf(queue -> {
+                ordered.add(queue.poll());
+                return queue.isEmpty();
+            });
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,161 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseFact;
+import com.expensetracker.dto.FactAggregate;
+import com.expensetracker.dto.TransactionFact;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Serves interactive chart queries from per-user {@link UserFactColumns} held in memory.
+ * Snapshots are built once from the database, bounded by their estimated size in bytes,
+ * and dropped after a sync or expense write commits so the next query rebuilds them.
+ */
+@Service
+public class ColumnarAnalyticsService {
+    private static final String UNCATEGORIZED = SpendingRollupService.UNCATEGORIZED;
+
+    private final TransactionRepository transactionRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String expenseCurrency;
+    private final Cache<Long, UserFactColumns> columnsByUser;
+
+    public ColumnarAnalyticsService(TransactionRepository transactionRepository,
+                                    ExpenseRepository expenseRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${expenses.currency}") String expenseCurrency,
+                                    @Value("${analytics.columnar.max-bytes}") long maxBytes,
+                                    @Value("${analytics.columnar.expire-after-access}") Duration expireAfterAccess) {
+        this.transactionRepository = transactionRepository;
+        this.expenseRepository = expenseRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expenseCurrency = expenseCurrency;
+
+        this.columnsByUser = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, UserFactColumns columns) ->
+                        (int) Math.min(Integer.MAX_VALUE, columns.estimatedBytes()))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, columnsByUser, "analytics.columnar");
+        Gauge.builder("analytics.columnar.memory", columnsByUser,
+                        cache -> cache.policy().eviction()
+                                .map(eviction -> eviction.weightedSize().orElse(0L))
+                                .orElse(0L))
+                .description("Estimated bytes held by cached per-user fact columns")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("analytics.columnar.rows", columnsByUser,
+                        cache -> cache.asMap().values().stream().mapToLong(UserFactColumns::size).sum())
+                .description("Fact rows held by cached per-user fact columns")
+                .register(meterRegistry);
+    }
+
+    public List<FactAggregate> sum(Long userId, LocalDate from, LocalDate to, Transaction.TransactionType type) {
+        return toAggregates(columnsFor(userId).groupBy(UserFactColumns.Dimension.CURRENCY, from, to, type));
+    }
+
+    public List<FactAggregate> groupBy(Long userId, UserFactColumns.Dimension dimension,
+                                       LocalDate from, LocalDate to, Transaction.TransactionType type) {
+        return toAggregates(columnsFor(userId).groupBy(dimension, from, to, type));
+    }
+
+    public List<FactAggregate> top(Long userId, UserFactColumns.Dimension dimension,
+                                   LocalDate from, LocalDate to, Transaction.TransactionType type, int limit) {
+        return toAggregates(columnsFor(userId).top(dimension, from, to, type, limit));
+    }
+
+    /**
+     * Drops the user's snapshot once the surrounding transaction commits, or right away
+     * when called outside a transaction.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            columnsByUser.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                columnsByUser.invalidate(userId);
+            }
+        });
+    }
+
+    private UserFactColumns columnsFor(Long userId) {
+        return columnsByUser.get(userId, this::load);
+    }
+
+    private UserFactColumns load(Long userId) {
+        return readOnlyTransaction.execute(status -> {
+            UserFactColumns.Builder builder = UserFactColumns.builder();
+
+            try (Stream<TransactionFact> facts = transactionRepository.streamFactsByUserId(userId)) {
+                facts.forEach(fact -> builder.add(
+                        fact.transactionDate(),
+                        toMinorUnits(fact.amount()),
+                        fact.transactionType(),
+                        UNCATEGORIZED,
+                        fact.currency(),
+                        merchantOf(fact)));
+            }
+
+            try (Stream<ExpenseFact> facts = expenseRepository.streamFactsByUserId(userId)) {
+                facts.forEach(fact -> builder.add(
+                        fact.date().toLocalDate(),
+                        fact.amount(),
+                        Transaction.TransactionType.DEBIT,
+                        fact.category() != null ? fact.category().name() : UNCATEGORIZED,
+                        expenseCurrency,
+                        fact.description()));
+            }
+
+            return builder.build();
+        });
+    }
+
+    private static String merchantOf(TransactionFact fact) {
+        String counterparty = fact.transactionType() == Transaction.TransactionType.DEBIT
+                ? fact.creditorName()
+                : fact.debtorName();
+        return counterparty != null ? counterparty : fact.description();
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static List<FactAggregate> toAggregates(List<UserFactColumns.Group> groups) {
+        return groups.stream()
+                .map(group -> new FactAggregate(
+                        group.key(),
+                        group.currency(),
+                        BigDecimal.valueOf(group.amountMinor(), 2),
+                        group.count()))
+                .toList();
+    }
+}
@@ -1,33 +1,77 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.ExpenseRequest;
 import com.expensetracker.dto.ExpenseResponse;
 import com.expensetracker.mapper.ExpenseMapper;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseSource;
 import com.expensetracker.model.Users;
 import com.expensetracker.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseService {
     private final ExpenseRepository expenseRepository;
+    private final SpendingRollupService rollupService;
+    private final ColumnarAnalyticsService columnarAnalytics;
+    private final UserDataVersionService dataVersionService;
 
-    public List<ExpenseResponse> getAllExpensesByUser(Users user) {
-        List<Expense> expenses = expenseRepository.findAllByUserId(user.getId());
+    public List<ExpenseResponse> getAllExpensesByUser(Long userId) {
+        List<ExpenseResponse> expenseResponses = expenseRepository.findResponsesByUserId(userId);
 
-        List<ExpenseResponse> expenseResponses = new ArrayList<>();
-        for (Expense expense : expenses) {
-            ExpenseResponse expenseResponse = ExpenseMapper.toExpenseResponse(expense);
-            expenseResponses.add(expenseResponse);
+        if (expenseResponses.isEmpty()) {
+            throw new RuntimeException("No expenses found for user: " + userId);
         }
+        return expenseResponses;
+    }
 
-        if (expenses.isEmpty()) {
-            throw new RuntimeException("No expenses found for user: " + user.getUsername());
+    @Transactional
+    public ExpenseResponse createExpense(Users user, ExpenseRequest request) {
+        if (request.amount() == null || request.amount() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
         }
-        return expenseResponses;
+        if (request.description() == null || request.description().isBlank()) {
+            throw new IllegalArgumentException("Description is required");
+        }
+
+        Expense expense = new Expense();
+        expense.setUser(user);
+        expense.setCategory(request.category());
+        expense.setAmount(request.amount());
+        expense.setDescription(request.description());
+        expense.setDate(request.date() != null ? request.date() : LocalDateTime.now());
+        expense.setSource(ExpenseSource.MANUAL);
+
+        Expense saved = expenseRepository.save(expense);
+        rollupService.recordExpenseAdded(saved);
+        dataVersionService.bump(user.getId());
+        columnarAnalytics.invalidateAfterCommit(user.getId());
+
+        return ExpenseMapper.toExpenseResponse(saved);
+    }
+
+    /**
+     * @return false if the expense does not exist or belongs to another user
+     */
+    @Transactional
+    public boolean deleteExpense(Long userId, Long expenseId) {
+        Expense expense = expenseRepository.findById(expenseId)
+                .filter(e -> e.getUser().getId().equals(userId))
+                .orElse(null);
+        if (expense == null) {
+            return false;
+        }
+
+        expenseRepository.delete(expense);
+        rollupService.recordExpenseRemoved(expense);
+        dataVersionService.bump(userId);
+        columnarAnalytics.invalidateAfterCommit(userId);
+        return true;
     }
 }
@@ -0,0 +1,182 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.TransactionDto;
+import com.expensetracker.mapper.ExpenseMapper;
+import com.expensetracker.mapper.TransactionMapper;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's transactions or expenses as CSV or NDJSON straight from a database
+ * cursor. Rows are written as they are read and the persistence context is cleared
+ * periodically, so memory stays flat regardless of how many rows the user has.
+ */
+@Service
+public class ExportService {
+
+    private static final List<Column<TransactionDto>> TRANSACTION_COLUMNS = List.of(
+            new Column<>("id", TransactionDto::id),
+            new Column<>("transactionId", TransactionDto::transactionId),
+            new Column<>("accountId", TransactionDto::accountId),
+            new Column<>("transactionDate", TransactionDto::transactionDate),
+            new Column<>("bookingDate", TransactionDto::bookingDate),
+            new Column<>("valueDate", TransactionDto::valueDate),
+            new Column<>("amount", TransactionDto::amount),
+            new Column<>("currency", TransactionDto::currency),
+            new Column<>("transactionType", TransactionDto::transactionType),
+            new Column<>("description", TransactionDto::description),
+            new Column<>("creditorName", TransactionDto::creditorName),
+            new Column<>("debtorName", TransactionDto::debtorName),
+            new Column<>("creditorAccount", TransactionDto::creditorAccount),
+            new Column<>("debtorAccount", TransactionDto::debtorAccount),
+            new Column<>("transactionCode", TransactionDto::transactionCode),
+            new Column<>("proprietaryBankTransactionCode", TransactionDto::proprietaryBankTransactionCode),
+            new Column<>("balanceAfterTransaction", TransactionDto::balanceAfterTransaction),
+            new Column<>("institutionId", TransactionDto::institutionId)
+    );
+
+    private static final List<Column<ExpenseResponse>> EXPENSE_COLUMNS = List.of(
+            new Column<>("id", ExpenseResponse::id),
+            new Column<>("category", ExpenseResponse::category),
+            new Column<>("amount", ExpenseResponse::Amount),
+            new Column<>("description", ExpenseResponse::Description),
+            new Column<>("date", ExpenseResponse::date)
+    );
+
+    private final TransactionRepository transactionRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int flushInterval;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(TransactionRepository transactionRepository,
+                         ExpenseRepository expenseRepository,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${export.flush-interval}") int flushInterval) {
+        this.transactionRepository = transactionRepository;
+        this.expenseRepository = expenseRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.flushInterval = flushInterval;
+    }
+
+    public void exportTransactions(Long userId, ExportFormat format, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TransactionDto> rows = transactionRepository.streamByUserId(userId)
+                    .map(TransactionMapper::toDto)) {
+                write(rows, format, TRANSACTION_COLUMNS, TransactionDto.class, out);
+            }
+        });
+    }
+
+    public void exportExpenses(Long userId, ExportFormat format, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ExpenseResponse> rows = expenseRepository.streamByUserId(userId)
+                    .map(ExpenseMapper::toExpenseResponse)) {
+                write(rows, format, EXPENSE_COLUMNS, ExpenseResponse.class, out);
+            }
+        });
+    }
+
+    private <R> void write(Stream<R> rows, ExportFormat format, List<Column<R>> columns,
+                           Class<R> rowType, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            RowWriter<R> rowWriter = format == ExportFormat.CSV
+                    ? csvWriter(writer, columns)
+                    : ndjsonWriter(writer, rowType);
+            // Push the header (or nothing) out before the first row arrives
+            writer.flush();
+
+            int written = 0;
+            Iterator<R> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.write(iterator.next());
+                if (++written % flushInterval == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <R> RowWriter<R> csvWriter(Writer writer, List<Column<R>> columns) throws IOException {
+        writeCsvLine(writer, columns.stream().map(Column::name).toList());
+        return row -> writeCsvLine(writer, columns.stream()
+                .map(column -> column.value().apply(row))
+                .toList());
+    }
+
+    private <R> RowWriter<R> ndjsonWriter(Writer writer, Class<R> rowType) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Drain into the buffered writer per row; the network flush stays batched
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        ObjectWriter rowWriter = objectMapper.writerFor(rowType)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return row -> {
+            rowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+            generator.flush();
+        };
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record Column<R>(String name, Function<R, Object> value) {}
+
+    @FunctionalInterface
+    private interface RowWriter<R> {
+        void write(R row) throws IOException;
+    }
+}
@@ -1,23 +1,34 @@
 package com.expensetracker.service;
 
+import com.expensetracker.client.GoCardlessClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Hands out the GoCardless access token. The token and its expiry are published
+ * together as one immutable state, so readers never see a torn pair and never
+ * lock while the token is valid. Only one caller renews at a time, and a
+ * background task renews shortly before expiry using the refresh token, falling
+ * back to the secrets only when the refresh token is gone or rejected.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GoCardlessAuthService {
-    private final RestTemplate restTemplate;
+    private static final Duration EXPIRY_SAFETY_MARGIN = Duration.ofSeconds(30);
+    private static final long DEFAULT_ACCESS_EXPIRES_SECONDS = Duration.ofMinutes(23).toSeconds();
+
+    private final GoCardlessClient goCardlessClient;
+    private final ReentrantLock renewLock = new ReentrantLock();
 
     @Value("${gocardless.secret.id}")
     private String secretId;
@@ -25,31 +36,97 @@ public class GoCardlessAuthService {
     @Value("${gocardless.secret.key}")
     private String secretKey;
 
-    private String accessToken;
-    private LocalDateTime tokenExpiry;
+    @Value("${gocardless.token.refresh-ahead}")
+    private Duration refreshAhead;
+
+    private volatile TokenState state;
 
     public String getAccessToken() {
-        if (accessToken == null || LocalDateTime.now().isAfter(tokenExpiry)) {
-            refreshToken();
+        TokenState current = state;
+        if (current != null && current.accessValidAt(Instant.now().plus(EXPIRY_SAFETY_MARGIN))) {
+            return current.accessToken();
+        }
+
+        renewLock.lock();
+        try {
+            current = state;
+            if (current == null || !current.accessValidAt(Instant.now().plus(EXPIRY_SAFETY_MARGIN))) {
+                current = renew(current);
+            }
+            return current.accessToken();
+        } finally {
+            renewLock.unlock();
+        }
+    }
+
+    /**
+     * Renews the token ahead of expiry so request threads keep finding a valid one.
+     * Skips the run if another caller is already renewing.
+     */
+    @Scheduled(fixedDelayString = "${gocardless.token.check-interval}")
+    public void renewIfExpiringSoon() {
+        TokenState current = state;
+        if (current == null || current.accessValidAt(Instant.now().plus(refreshAhead))) {
+            return;
+        }
+        if (!renewLock.tryLock()) {
+            return;
+        }
+        try {
+            if (state == current) {
+                renew(current);
+            }
+        } catch (Exception e) {
+            log.warn("Proactive GoCardless token renewal failed: {}", e.getMessage());
+        } finally {
+            renewLock.unlock();
         }
-        return accessToken;
     }
 
-    private void refreshToken() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    private TokenState renew(TokenState current) {
+        if (current != null && current.refreshValidAt(Instant.now().plus(EXPIRY_SAFETY_MARGIN))) {
+            try {
+                Map<String, Object> response = goCardlessClient.postUnauthenticated(
+                        "/token/refresh/", Map.of("refresh", current.refreshToken()), Map.class);
+                Instant now = Instant.now();
+                state = new TokenState(
+                        (String) response.get("access"),
+                        now.plusSeconds(seconds(response.get("access_expires"), DEFAULT_ACCESS_EXPIRES_SECONDS)),
+                        current.refreshToken(),
+                        current.refreshExpiresAt()
+                );
+                return state;
+            } catch (HttpClientErrorException e) {
+                log.info("GoCardless refresh token rejected ({}), requesting a new token pair",
+                        e.getStatusCode().value());
+            }
+        }
 
-        Map<String, String> request = Map.of(
-                "secret_id", secretId,
-                "secret_key", secretKey
+        Map<String, Object> response = goCardlessClient.postUnauthenticated(
+                "/token/new/", Map.of("secret_id", secretId, "secret_key", secretKey), Map.class);
+        Instant now = Instant.now();
+        state = new TokenState(
+                (String) response.get("access"),
+                now.plusSeconds(seconds(response.get("access_expires"), DEFAULT_ACCESS_EXPIRES_SECONDS)),
+                (String) response.get("refresh"),
+                now.plusSeconds(seconds(response.get("refresh_expires"), 0))
         );
+        return state;
+    }
+
+    private static long seconds(Object value, long fallback) {
+        return value instanceof Number number ? number.longValue() : fallback;
+    }
+
+    private record TokenState(String accessToken, Instant accessExpiresAt,
+                              String refreshToken, Instant refreshExpiresAt) {
 
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-                "https://bankaccountdata.gocardless.com/api/v2/token/new/",
-                new HttpEntity<>(request, headers),
-                Map.class);
+        boolean accessValidAt(Instant instant) {
+            return accessToken != null && accessExpiresAt.isAfter(instant);
+        }
 
-        this.accessToken = (String) response.getBody().get("access");
-        this.tokenExpiry = LocalDateTime.now().plusMinutes(23);
+        boolean refreshValidAt(Instant instant) {
+            return refreshToken != null && refreshExpiresAt.isAfter(instant);
+        }
     }
 }
@@ -1,13 +1,12 @@
 package com.expensetracker.service;
 
+import com.expensetracker.client.GoCardlessClient;
+import com.expensetracker.model.BankConnection;
+import com.expensetracker.repository.BankConnectionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -15,17 +14,14 @@ import java.util.Map;
 @Service
 @RequiredArgsConstructor
 public class RequisitionService {
-    private final RestTemplate restTemplate;
-    private final GoCardlessAuthService authService;
+    private final GoCardlessClient goCardlessClient;
+    private final BankConnectionRepository bankConnectionRepository;
+    private final UserDataVersionService dataVersionService;
 
     @Value("${gocardless.redirect.url}")
     private String redirectUrl;
 
     public Map<String, String> createRequisition(String institutionId, String reference) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(authService.getAccessToken());
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
         Map<String, Object> request = Map.of(
                 "redirect", redirectUrl,
                 "institution_id", institutionId,
@@ -33,15 +29,23 @@ public class RequisitionService {
                 "user_language", "ES"
         );
 
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-                "https://bankaccountdata.gocardless.com/api/v2/requisitions/",
-                new HttpEntity<>(request, headers),
-                Map.class);
+        Map<String, Object> response = goCardlessClient.post("/requisitions/", request, Map.class);
 
         Map<String, String> result = new HashMap<>();
-        result.put("link", (String) response.getBody().get("link"));
-        result.put("requisitionId", (String) response.getBody().get("id"));
+        result.put("link", (String) response.get("link"));
+        result.put("requisitionId", (String) response.get("id"));
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Records the outcome of the bank authorisation. The status is part of the user's
+     * transaction list (bankConnectionStatus), so their data version moves with it.
+     */
+    @Transactional
+    public void updateConnectionStatus(BankConnection connection, String status) {
+        connection.setStatus(status);
+        bankConnectionRepository.save(connection);
+        dataVersionService.bump(connection.getUser().getId());
+    }
+}
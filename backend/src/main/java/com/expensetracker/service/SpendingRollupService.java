@@ -0,0 +1,141 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.SpendingRollupRow;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Transaction;
+import com.expensetracker.repository.SpendingRollupRepository;
+import com.expensetracker.repository.SpendingRollupRepository.Delta;
+import com.expensetracker.repository.SpendingRollupRepository.Granularity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the daily and monthly spending rollups in step with the raw tables. Callers
+ * invoke it from inside their own write transaction, so a rollup change commits or
+ * rolls back together with the rows it summarises.
+ */
+@Service
+public class SpendingRollupService {
+    public static final String SOURCE_TRANSACTION = "TRANSACTION";
+    public static final String SOURCE_EXPENSE = "EXPENSE";
+    public static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    // Deltas are applied in key order so concurrent syncs lock rollup rows in the same order
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::userId)
+            .thenComparing(RollupKey::periodStart)
+            .thenComparing(RollupKey::source)
+            .thenComparing(RollupKey::category)
+            .thenComparing(RollupKey::currency)
+            .thenComparing(RollupKey::transactionType);
+
+    private final SpendingRollupRepository rollupRepository;
+    private final String expenseCurrency;
+
+    public SpendingRollupService(SpendingRollupRepository rollupRepository,
+                                 @Value("${expenses.currency}") String expenseCurrency) {
+        this.rollupRepository = rollupRepository;
+        this.expenseCurrency = expenseCurrency;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransactions(List<Transaction> transactions) {
+        Map<RollupKey, Totals> daily = new TreeMap<>(KEY_ORDER);
+        for (Transaction transaction : transactions) {
+            RollupKey key = new RollupKey(
+                    transaction.getUser().getId(),
+                    transaction.getTransactionDate(),
+                    SOURCE_TRANSACTION,
+                    UNCATEGORIZED,
+                    transaction.getCurrency(),
+                    transaction.getTransactionType().name());
+            daily.computeIfAbsent(key, k -> new Totals()).add(transaction.getAmount(), 1);
+        }
+        apply(daily);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenseAdded(Expense expense) {
+        recordExpense(expense, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenseRemoved(Expense expense) {
+        recordExpense(expense, -1);
+    }
+
+    public List<SpendingRollupRow> getSpending(Long userId, Granularity granularity, LocalDate from, LocalDate to) {
+        // Monthly rows are keyed by the first day of the month
+        LocalDate start = granularity == Granularity.MONTHLY ? from.withDayOfMonth(1) : from;
+        return rollupRepository.find(granularity, userId, start, to);
+    }
+
+    private void recordExpense(Expense expense, int sign) {
+        RollupKey key = new RollupKey(
+                expense.getUser().getId(),
+                expense.getDate().toLocalDate(),
+                SOURCE_EXPENSE,
+                expense.getCategory() != null ? expense.getCategory().name() : UNCATEGORIZED,
+                expenseCurrency,
+                Transaction.TransactionType.DEBIT.name());
+
+        Map<RollupKey, Totals> daily = new TreeMap<>(KEY_ORDER);
+        // Expense amounts are stored in minor units
+        daily.computeIfAbsent(key, k -> new Totals())
+                .add(BigDecimal.valueOf(expense.getAmount(), 2).multiply(BigDecimal.valueOf(sign)), sign);
+        apply(daily);
+    }
+
+    private void apply(Map<RollupKey, Totals> daily) {
+        if (daily.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, Totals> monthly = new TreeMap<>(KEY_ORDER);
+        daily.forEach((key, totals) -> monthly
+                .computeIfAbsent(key.withPeriodStart(key.periodStart().withDayOfMonth(1)), k -> new Totals())
+                .add(totals.amount, totals.count));
+
+        rollupRepository.applyDeltas(Granularity.DAILY, toDeltas(daily));
+        rollupRepository.applyDeltas(Granularity.MONTHLY, toDeltas(monthly));
+    }
+
+    private static List<Delta> toDeltas(Map<RollupKey, Totals> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> new Delta(
+                        entry.getKey().userId(),
+                        entry.getKey().periodStart(),
+                        entry.getKey().source(),
+                        entry.getKey().category(),
+                        entry.getKey().currency(),
+                        entry.getKey().transactionType(),
+                        entry.getValue().amount,
+                        entry.getValue().count))
+                .toList();
+    }
+
+    private record RollupKey(Long userId, LocalDate periodStart, String source, String category,
+                             String currency, String transactionType) {
+        RollupKey withPeriodStart(LocalDate periodStart) {
+            return new RollupKey(userId, periodStart, source, category, currency, transactionType);
+        }
+    }
+
+    private static final class Totals {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        void add(BigDecimal amount, long count) {
+            this.amount = this.amount.add(amount);
+            this.count += count;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.expensetracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of in-flight bank-data calls, both per user and across the
+ * whole application, so a fan-out sync cannot exhaust the upstream API or the
+ * connection pool.
+ * <p>
+ * A user's semaphore lives only while some call for that user is waiting or running;
+ * the count of such calls is updated inside the map's atomic {@code compute}, so the
+ * entry is dropped with the last one and concurrent callers always share the same
+ * semaphore.
+ */
+@Component
+public class SyncConcurrencyLimiter {
+    private final Semaphore globalPermits;
+    private final int perUserLimit;
+    private final ConcurrentHashMap<Long, UserPermits> userPermits = new ConcurrentHashMap<>();
+    private final ThreadLocal<HeldPermits> heldPermits = new ThreadLocal<>();
+
+    public SyncConcurrencyLimiter(
+            @Value("${sync.concurrency.global}") int globalLimit,
+            @Value("${sync.concurrency.per-user}") int perUserLimit) {
+        this.globalPermits = new Semaphore(globalLimit, true);
+        this.perUserLimit = perUserLimit;
+    }
+
+    public <T> T call(Long userId, Callable<T> task) throws Exception {
+        UserPermits permits = userPermits.compute(userId, (id, existing) -> {
+            UserPermits entry = existing != null ? existing : new UserPermits(new Semaphore(perUserLimit, true));
+            entry.callers++;
+            return entry;
+        });
+        HeldPermits held = new HeldPermits(permits.semaphore);
+        try {
+            held.acquire();
+            heldPermits.set(held);
+            return task.call();
+        } finally {
+            heldPermits.remove();
+            held.release();
+            userPermits.computeIfPresent(userId, (id, entry) -> --entry.callers == 0 ? null : entry);
+        }
+    }
+
+    /**
+     * Sleeps for {@code delay}. Inside {@link #call}, the caller's permits are handed
+     * back for the duration, so a call backing off from a throttled upstream does not
+     * keep other calls of the same user, or of everyone, waiting.
+     */
+    public void sleepWithoutPermits(Duration delay) throws InterruptedException {
+        HeldPermits held = heldPermits.get();
+        if (held == null) {
+            Thread.sleep(delay);
+            return;
+        }
+        held.release();
+        Thread.sleep(delay);
+        held.acquire();
+    }
+
+    int trackedUsers() {
+        return userPermits.size();
+    }
+
+    private static final class UserPermits {
+        private final Semaphore semaphore;
+        // Guarded by the map's per-key compute
+        private int callers;
+
+        private UserPermits(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+    }
+
+    /**
+     * The permits of one call, confined to its thread. Tracks what is held so an
+     * interrupted re-acquire is not followed by releasing permits never taken.
+     */
+    private final class HeldPermits {
+        private final Semaphore userSemaphore;
+        private boolean userHeld;
+        private boolean globalHeld;
+
+        private HeldPermits(Semaphore userSemaphore) {
+            this.userSemaphore = userSemaphore;
+        }
+
+        // User permit first, as everywhere, so callers cannot deadlock
+        void acquire() throws InterruptedException {
+            userSemaphore.acquire();
+            userHeld = true;
+            globalPermits.acquire();
+            globalHeld = true;
+        }
+
+        void release() {
+            if (globalHeld) {
+                globalPermits.release();
+                globalHeld = false;
+            }
+            if (userHeld) {
+                userSemaphore.release();
+                userHeld = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.SyncJobStatus;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks one background sync run for a user and pushes every progress change to
+ * the SSE subscribers of the job. Progress callbacks arrive from parallel sync
+ * threads; snapshots are taken and sent under one lock, so subscribers see them
+ * in order and never a stale one after a newer one.
+ */
+@Slf4j
+public class SyncJob implements SyncProgressListener {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final Long userId;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Map<String, ConnectionState> connections = new LinkedHashMap<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    // A lock rather than a monitor: holders block on subscriber I/O, which would pin
+    // a virtual thread's carrier
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    private Status status = Status.RUNNING;
+    private LocalDateTime finishedAt;
+    private int transactionCount;
+    private String error;
+
+    public SyncJob(Long userId) {
+        this.userId = userId;
+    }
+
+    public synchronized boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public synchronized LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized SyncJobStatus snapshot() {
+        List<SyncJobStatus.ConnectionProgress> progress = new ArrayList<>(connections.size());
+        for (Map.Entry<String, ConnectionState> entry : connections.entrySet()) {
+            ConnectionState state = entry.getValue();
+            progress.add(new SyncJobStatus.ConnectionProgress(
+                    entry.getKey(),
+                    state.status,
+                    state.accountsTotal,
+                    state.accountsSynced,
+                    state.transactionCount,
+                    List.copyOf(state.errors)
+            ));
+        }
+        return new SyncJobStatus(id, status.name(), startedAt, finishedAt, transactionCount, progress, error);
+    }
+
+    public void subscribe(SseEmitter emitter) {
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        sendLock.lock();
+        try {
+            send(emitter, snapshot());
+            if (isFinished()) {
+                emitter.complete();
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    @Override
+    public void onSyncStarted(List<String> requisitionIds) {
+        synchronized (this) {
+            for (String requisitionId : requisitionIds) {
+                connections.put(requisitionId, new ConnectionState());
+            }
+        }
+        publish();
+    }
+
+    @Override
+    public void onAccountsResolved(String requisitionId, int accountCount) {
+        synchronized (this) {
+            connection(requisitionId).accountsTotal = accountCount;
+        }
+        publish();
+    }
+
+    @Override
+    public void onAccountSynced(String requisitionId, String accountId, int newTransactions) {
+        synchronized (this) {
+            ConnectionState state = connection(requisitionId);
+            state.accountsSynced++;
+            state.transactionCount += newTransactions;
+            transactionCount += newTransactions;
+        }
+        publish();
+    }
+
+    @Override
+    public void onFailure(TransactionService.SyncFailure failure) {
+        synchronized (this) {
+            connection(failure.requisitionId()).errors.add(
+                    failure.accountId() != null ? failure.accountId() + ": " + failure.error() : failure.error());
+        }
+        publish();
+    }
+
+    @Override
+    public void onConnectionCompleted(String requisitionId) {
+        synchronized (this) {
+            ConnectionState state = connection(requisitionId);
+            state.status = state.errors.isEmpty() ? "COMPLETED" : "COMPLETED_WITH_ERRORS";
+        }
+        publish();
+    }
+
+    public void complete(TransactionService.SyncResult result) {
+        synchronized (this) {
+            status = Status.COMPLETED;
+            transactionCount = result.transactionCount();
+            finishedAt = LocalDateTime.now();
+        }
+        publishAndClose();
+    }
+
+    public void fail(Exception e) {
+        synchronized (this) {
+            status = Status.FAILED;
+            error = e.getMessage();
+            finishedAt = LocalDateTime.now();
+        }
+        publishAndClose();
+    }
+
+    private ConnectionState connection(String requisitionId) {
+        return connections.computeIfAbsent(requisitionId, id -> new ConnectionState());
+    }
+
+    private void publish() {
+        sendLock.lock();
+        try {
+            SyncJobStatus snapshot = snapshot();
+            for (SseEmitter emitter : emitters) {
+                send(emitter, snapshot);
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void publishAndClose() {
+        sendLock.lock();
+        try {
+            publish();
+            for (SseEmitter emitter : emitters) {
+                emitter.complete();
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void send(SseEmitter emitter, SyncJobStatus snapshot) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("progress")
+                    .id(id)
+                    .data(snapshot));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping SSE subscriber of sync job {}: {}", id, e.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+
+    private static final class ConnectionState {
+        private String status = "RUNNING";
+        private int accountsTotal;
+        private int accountsSynced;
+        private int transactionCount;
+        private final List<String> errors = new ArrayList<>();
+    }
+}
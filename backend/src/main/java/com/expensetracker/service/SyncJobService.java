@@ -0,0 +1,84 @@
+package com.expensetracker.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs transaction syncs as background jobs so the request thread returns right
+ * away. Finished jobs are kept for a while so clients can still read the outcome,
+ * and evicted on a timer once their retention has passed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncJobService {
+    private final TransactionService transactionService;
+    private final ExecutorService bankSyncExecutor;
+
+    private final Map<String, SyncJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, SyncJob> runningJobsByUser = new ConcurrentHashMap<>();
+
+    @Value("${sync.jobs.retention}")
+    private Duration retention;
+
+    @Value("${sync.jobs.sse-timeout}")
+    private Duration sseTimeout;
+
+    /**
+     * Starts a sync for the user, or returns the job that is already running for them.
+     */
+    public SyncJob start(Long userId) {
+        SyncJob[] created = new SyncJob[1];
+        SyncJob job = runningJobsByUser.computeIfAbsent(userId, id -> {
+            created[0] = new SyncJob(id);
+            return created[0];
+        });
+        if (created[0] == null) {
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        bankSyncExecutor.execute(() -> run(job));
+        return job;
+    }
+
+    public Optional<SyncJob> find(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.getUserId().equals(userId));
+    }
+
+    public SseEmitter subscribe(SyncJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    private void run(SyncJob job) {
+        try {
+            job.complete(transactionService.fetchAndSaveTransactions(job.getUserId(), job));
+        } catch (Exception e) {
+            log.warn("Sync job {} for user {} failed: {}", job.getId(), job.getUserId(), e.getMessage());
+            job.fail(e);
+        } finally {
+            runningJobsByUser.remove(job.getUserId(), job);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
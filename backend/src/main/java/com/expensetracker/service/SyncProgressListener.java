@@ -0,0 +1,22 @@
+package com.expensetracker.service;
+
+import java.util.List;
+
+/**
+ * Receives progress callbacks from {@link TransactionService} while a sync runs.
+ * Callbacks arrive concurrently from the sync worker threads.
+ */
+public interface SyncProgressListener {
+
+    SyncProgressListener NONE = new SyncProgressListener() {};
+
+    default void onSyncStarted(List<String> requisitionIds) {}
+
+    default void onAccountsResolved(String requisitionId, int accountCount) {}
+
+    default void onAccountSynced(String requisitionId, String accountId, int newTransactions) {}
+
+    default void onFailure(TransactionService.SyncFailure failure) {}
+
+    default void onConnectionCompleted(String requisitionId) {}
+}
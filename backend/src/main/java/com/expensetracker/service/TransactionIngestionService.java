@@ -0,0 +1,68 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+import com.expensetracker.repository.TransactionInsertRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionIngestionService {
+    private final TransactionInsertRepository transactionInsertRepository;
+    private final SpendingRollupService rollupService;
+    private final ColumnarAnalyticsService columnarAnalytics;
+    private final UserDataVersionService dataVersionService;
+
+    /**
+     * Inserts the transactions of one page that are not stored yet. Rows go out as
+     * multi-row {@code INSERT ... ON CONFLICT (transaction_id) DO NOTHING}, so the
+     * unique constraint settles duplicates, including those written by a concurrent
+     * sync of the same account. The spending rollups are updated for the rows actually
+     * inserted in the same transaction, and the user's data version is bumped.
+     */
+    @Transactional
+    public List<Transaction> ingest(List<Transaction> page) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Transaction> byTransactionId = new LinkedHashMap<>();
+        for (Transaction transaction : page) {
+            byTransactionId.putIfAbsent(transaction.getTransactionId(), transaction);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> insertedIds = transactionInsertRepository.insertIgnoringDuplicates(
+                List.copyOf(byTransactionId.values()), now);
+
+        List<Transaction> saved = new ArrayList<>(insertedIds.size());
+        for (Map.Entry<String, Transaction> entry : byTransactionId.entrySet()) {
+            Long id = insertedIds.get(entry.getKey());
+            if (id != null) {
+                Transaction transaction = entry.getValue();
+                transaction.setId(id);
+                transaction.setCreatedAt(now);
+                transaction.setUpdatedAt(now);
+                saved.add(transaction);
+            }
+        }
+
+        rollupService.recordTransactions(saved);
+        saved.stream()
+                .map(transaction -> transaction.getUser().getId())
+                .distinct()
+                .forEach(userId -> {
+                    dataVersionService.bump(userId);
+                    columnarAnalytics.invalidateAfterCommit(userId);
+                });
+
+        return saved;
+    }
+}
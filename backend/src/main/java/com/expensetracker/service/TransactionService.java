@@ -1,26 +1,43 @@
 package com.expensetracker.service;
 
+import com.expensetracker.client.GoCardlessClient;
+import com.expensetracker.client.GoCardlessTransactionParser;
+import com.expensetracker.dto.TransactionDto;
+import com.expensetracker.dto.TransactionPage;
+import com.expensetracker.dto.TransactionSearchPage;
+import com.expensetracker.mapper.TransactionMapper;
+import com.expensetracker.model.AccountSyncCursor;
 import com.expensetracker.model.BankConnection;
 import com.expensetracker.model.Transaction;
 import com.expensetracker.model.Users;
 import com.expensetracker.repository.BankConnectionRepository;
+import com.expensetracker.repository.TransactionFields;
+import com.expensetracker.repository.TransactionFieldsRepository.FieldFilter;
 import com.expensetracker.repository.TransactionRepository;
 import com.expensetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,180 +45,378 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final BankConnectionRepository bankConnectionRepository;
     private final UserRepository userRepository;
-    private final RestTemplate restTemplate;
-    private final GoCardlessAuthService authService;
+    private final GoCardlessClient goCardlessClient;
+    private final SyncConcurrencyLimiter concurrencyLimiter;
+    private final ExecutorService bankSyncExecutor;
+    private final TransactionIngestionService ingestionService;
+    private final AccountSyncCursorService cursorService;
+    private final GoCardlessTransactionParser transactionParser;
+
+    @Value("${sync.ingest.batch-size}")
+    private int ingestBatchSize;
+
+    @Value("${transactions.page.default-size}")
+    private int defaultPageSize;
+
+    @Value("${transactions.page.max-size}")
+    private int maxPageSize;
+
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+    private static final String[] CURSOR_FIELDS = {"id", "transactionDate"};
+    private static final Pattern SEARCH_WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Set<Long> connectionsInFlight = ConcurrentHashMap.newKeySet();
 
     private static final Logger logger = Logger.getLogger(TransactionService.class.getName());
 
-    public List<Transaction> fetchAndSaveTransactions(Long userId) {
+    /**
+     * Syncs a single connection, as used by the background scheduler.
+     */
+    public SyncResult syncConnection(BankConnection connection) {
+        List<SyncFailure> failures = Collections.synchronizedList(new ArrayList<>());
+        int transactionCount = fetchTransactionsForConnection(
+                connection.getUser().getId(), connection, failures, SyncProgressListener.NONE);
+        return new SyncResult(transactionCount, List.copyOf(failures));
+    }
+
+    public SyncResult fetchAndSaveTransactions(Long userId, SyncProgressListener listener) {
         Users user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<BankConnection> connections = bankConnectionRepository.findByUserAndStatus(user, "LINKED");
-        List<Transaction> allTransactions = new ArrayList<>();
-
-        for (BankConnection connection : connections) {
-            try {
-                List<Transaction> transactions = fetchTransactionsForConnection(connection);
-                allTransactions.addAll(transactions);
-            } catch (Exception e) {
-                logger.warning("Failed to fetch transactions for connection: " + connection.getRequisitionId() +
-                        ". Error: " + e.getMessage());
-            }
+        List<SyncFailure> failures = Collections.synchronizedList(new ArrayList<>());
+        listener.onSyncStarted(connections.stream().map(BankConnection::getRequisitionId).toList());
+
+        List<CompletableFuture<Integer>> connectionSyncs = connections.stream()
+                .map(connection -> CompletableFuture.supplyAsync(
+                        () -> fetchTransactionsForConnection(userId, connection, failures, listener),
+                        bankSyncExecutor))
+                .toList();
+
+        int transactionCount = 0;
+        for (CompletableFuture<Integer> connectionSync : connectionSyncs) {
+            transactionCount += connectionSync.join();
         }
 
-        return allTransactions;
+        return new SyncResult(transactionCount, List.copyOf(failures));
     }
 
-    private List<Transaction> fetchTransactionsForConnection(BankConnection connection) {
-        List<String> accountIds = getAccountsForRequisition(connection.getRequisitionId());
-        List<Transaction> allTransactions = new ArrayList<>();
+    private int fetchTransactionsForConnection(Long userId, BankConnection connection,
+                                               List<SyncFailure> failures, SyncProgressListener listener) {
+        if (!connectionsInFlight.add(connection.getId())) {
+            recordFailure(new SyncFailure(connection.getRequisitionId(), null, "Sync already in progress"),
+                    failures, listener);
+            listener.onConnectionCompleted(connection.getRequisitionId());
+            return 0;
+        }
+        try {
+            return syncAccountsOfConnection(userId, connection, failures, listener);
+        } finally {
+            connectionsInFlight.remove(connection.getId());
+        }
+    }
+
+    private int syncAccountsOfConnection(Long userId, BankConnection connection,
+                                         List<SyncFailure> failures, SyncProgressListener listener) {
+        // Failed attempts count too, so a broken connection waits a full max-age before
+        // the scheduler picks it again instead of heading every batch
+        bankConnectionRepository.updateLastAttemptedAt(connection.getId(), LocalDateTime.now());
+
+        List<String> accountIds;
+        try {
+            accountIds = concurrencyLimiter.call(userId,
+                    () -> getAccountsForRequisition(connection.getRequisitionId()));
+        } catch (Exception e) {
+            logger.warning("Failed to fetch accounts for connection: " + connection.getRequisitionId() +
+                    ". Error: " + e.getMessage());
+            recordFailure(new SyncFailure(connection.getRequisitionId(), null, e.getMessage()), failures, listener);
+            listener.onConnectionCompleted(connection.getRequisitionId());
+            restoreInterrupt(e);
+            return 0;
+        }
+        listener.onAccountsResolved(connection.getRequisitionId(), accountIds.size());
+
+        List<CompletableFuture<OptionalInt>> accountSyncs = accountIds.stream()
+                .map(accountId -> CompletableFuture.supplyAsync(
+                        () -> fetchTransactionsForAccountSafely(userId, accountId, connection, failures, listener),
+                        bankSyncExecutor))
+                .toList();
+
+        int transactionCount = 0;
+        boolean anyAccountSynced = false;
+        for (CompletableFuture<OptionalInt> accountSync : accountSyncs) {
+            OptionalInt saved = accountSync.join();
+            if (saved.isPresent()) {
+                anyAccountSynced = true;
+                transactionCount += saved.getAsInt();
+            }
+        }
+        // A connection whose accounts all failed or were deferred keeps its old sync time;
+        // one without accounts has nothing left to sync
+        if (anyAccountSynced || accountIds.isEmpty()) {
+            bankConnectionRepository.updateLastSyncedAt(connection.getId(), LocalDateTime.now());
+        }
+        listener.onConnectionCompleted(connection.getRequisitionId());
+
+        return transactionCount;
+    }
 
-        for (String accountId : accountIds) {
-            List<Transaction> transactions = fetchTransactionsForAccount(accountId, connection);
-            allTransactions.addAll(transactions);
+    /**
+     * @return the number of saved transactions, or empty if the account could not be synced
+     */
+    private OptionalInt fetchTransactionsForAccountSafely(Long userId, String accountId,
+                                                  BankConnection connection,
+                                                  List<SyncFailure> failures,
+                                                  SyncProgressListener listener) {
+        try {
+            int saved = concurrencyLimiter.call(userId, () -> fetchTransactionsForAccount(accountId, connection));
+            listener.onAccountSynced(connection.getRequisitionId(), accountId, saved);
+            return OptionalInt.of(saved);
+        } catch (Exception e) {
+            logger.warning("Failed to fetch transactions for account: " + accountId +
+                    " of connection: " + connection.getRequisitionId() + ". Error: " + e.getMessage());
+            recordFailure(new SyncFailure(connection.getRequisitionId(), accountId, e.getMessage()), failures, listener);
+            restoreInterrupt(e);
+            return OptionalInt.empty();
         }
+    }
 
-        return allTransactions;
+    private static void recordFailure(SyncFailure failure, List<SyncFailure> failures,
+                                      SyncProgressListener listener) {
+        failures.add(failure);
+        listener.onFailure(failure);
+    }
+
+    private static void restoreInterrupt(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private List<String> getAccountsForRequisition(String requisitionId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(authService.getAccessToken());
-
-        ResponseEntity<Map> response = restTemplate.exchange(
-                "https://bankaccountdata.gocardless.com/api/v2/requisitions/" + requisitionId + "/",
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                Map.class
-        );
+        Map<String, Object> requisition = goCardlessClient.get("/requisitions/{requisitionId}/", Map.class, requisitionId);
 
-        return (List<String>) response.getBody().get("accounts");
+        List<String> accounts = (List<String>) requisition.get("accounts");
+        return accounts != null ? accounts : List.of();
     }
 
-    private List<Transaction> fetchTransactionsForAccount(String accountId, BankConnection connection) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(authService.getAccessToken());
+    private int fetchTransactionsForAccount(String accountId, BankConnection connection) {
+        AccountSyncCursor cursor = cursorService.load(connection, accountId);
+        LocalDate dateFrom = cursorService.dateFrom(cursor);
+        Set<String> lastSeenIds = cursorService.lastSeenIds(cursor);
+        AccountSyncCursorService.WatermarkTracker watermark = cursorService.tracker(cursor);
+
+        String path = "/accounts/{accountId}/transactions/";
+        Object[] uriVariables = {accountId};
+        if (dateFrom != null) {
+            path += "?date_from={dateFrom}";
+            uriVariables = new Object[]{accountId, dateFrom.format(DateTimeFormatter.ISO_LOCAL_DATE)};
+        }
 
-        ResponseEntity<Map> response = restTemplate.exchange(
-                "https://bankaccountdata.gocardless.com/api/v2/accounts/" + accountId + "/transactions/",
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                Map.class
+        Integer savedCount = goCardlessClient.getForAccount(
+                accountId,
+                "transactions",
+                path,
+                response -> {
+                    List<Transaction> page = new ArrayList<>(ingestBatchSize);
+                    int[] saved = {0};
+                    int[] missingIds = {0};
+                    transactionParser.parse(response.getBody(), bankTransaction -> {
+                        watermark.record(bankTransaction);
+                        if (bankTransaction.transactionId() == null) {
+                            missingIds[0]++;
+                            return;
+                        }
+                        if (lastSeenIds.contains(bankTransaction.transactionId())) {
+                            return;
+                        }
+                        Transaction transaction = TransactionMapper.toEntity(bankTransaction, accountId, connection);
+                        if (transaction == null) {
+                            return;
+                        }
+                        page.add(transaction);
+                        if (page.size() >= ingestBatchSize) {
+                            saved[0] += ingestionService.ingest(page).size();
+                            page.clear();
+                        }
+                    });
+                    saved[0] += ingestionService.ingest(page).size();
+                    if (missingIds[0] > 0) {
+                        logger.warning("Skipped " + missingIds[0] + " transactions without a transaction id" +
+                                " for account: " + accountId);
+                    }
+                    return saved[0];
+                },
+                uriVariables
         );
 
-        Map<String, Object> responseBody = response.getBody();
-        Map<String, List<Map<String, Object>>> transactions = (Map<String, List<Map<String, Object>>>) responseBody.get("transactions");
+        cursorService.advance(cursor, watermark);
 
-        List<Transaction> savedTransactions = new ArrayList<>();
+        return savedCount != null ? savedCount : 0;
+    }
 
-        if (transactions.containsKey("booked")) {
-            for (Map<String, Object> txnData : transactions.get("booked")) {
-                Transaction transaction = mapToTransaction(txnData, accountId, connection);
-                if (transaction != null) {
-                    if (transactionRepository.findByTransactionId(transaction.getTransactionId()).isEmpty()) {
-                        savedTransactions.add(transactionRepository.save(transaction));
-                    }
-                }
-            }
+    public List<TransactionDto> getUserTransactions(Long userId) {
+        return transactionRepository.findDtosByUserId(userId);
+    }
+
+    public List<TransactionDto> getUserTransactionsByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        return transactionRepository.findDtosByUserIdAndDateRange(userId, startDate, endDate);
+    }
+
+    public List<TransactionDto> getUserTransactionsByType(Long userId, Transaction.TransactionType type) {
+        return transactionRepository.findDtosByUserIdAndTransactionType(userId, type);
+    }
+
+    /**
+     * Sparse variant of the list endpoints: only the requested fields are selected and
+     * returned. Without a date range or type this lists everything in id order, as
+     * {@link #getUserTransactions} does; filtered lists are newest first.
+     */
+    public List<Map<String, Object>> getUserTransactionFields(Long userId, TransactionFields fields,
+                                                              LocalDate startDate, LocalDate endDate,
+                                                              Transaction.TransactionType type) {
+        boolean filtered = startDate != null || endDate != null || type != null;
+        return transactionRepository.findFields(userId, fields, FieldFilter.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .transactionType(type)
+                .newestFirst(filtered)
+                .build());
+    }
+
+    /**
+     * Returns one page of the user's transactions, newest first, continuing after the
+     * given cursor. Pages are read with a keyset predicate on {@code (transaction_date, id)}
+     * rather than an offset, so deep pages cost the same as the first one. With
+     * {@code fields} set, the items are maps holding just those fields.
+     */
+    public TransactionPage<?> getUserTransactionsPage(Long userId, String cursor, Integer limit,
+                                                      LocalDate startDate, LocalDate endDate,
+                                                      Transaction.TransactionType type,
+                                                      TransactionFields fields) {
+        int pageSize = limit == null ? defaultPageSize : Math.clamp(limit, 1, maxPageSize);
+        LocalDate from = startDate != null ? startDate : EARLIEST_DATE;
+        LocalDate to = endDate != null ? endDate : LATEST_DATE;
+
+        TransactionCursor position = cursor != null && !cursor.isBlank()
+                ? TransactionCursor.decode(cursor)
+                : new TransactionCursor(to, Long.MAX_VALUE);
+
+        if (fields != null) {
+            return getSparsePage(userId, pageSize, from, to, type, position, fields);
         }
 
-        if (transactions.containsKey("pending")) {
-            for (Map<String, Object> txnData : transactions.get("pending")) {
-                Transaction transaction = mapToTransaction(txnData, accountId, connection);
-                if (transaction != null) {
-                    if (transactionRepository.findByTransactionId(transaction.getTransactionId()).isEmpty()) {
-                        savedTransactions.add(transactionRepository.save(transaction));
-                    }
-                }
-            }
+        // One extra row tells us whether another page exists without a count query.
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<TransactionDto> rows = type == null
+                ? transactionRepository.findPageByUserId(
+                        userId, from, to, position.transactionDate(), position.id(), fetchLimit)
+                : transactionRepository.findPageByUserIdAndTransactionType(
+                        userId, type, from, to, position.transactionDate(), position.id(), fetchLimit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionDto> page = hasMore ? List.copyOf(rows.subList(0, pageSize)) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionDto last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.transactionDate(), last.id()).encode();
         }
 
-        return savedTransactions;
+        return new TransactionPage<>(page, nextCursor, hasMore);
     }
 
-    private Transaction mapToTransaction(Map<String, Object> txnData, String accountId, BankConnection connection) {
-        try {
-            Map<String, Object> transactionAmount = (Map<String, Object>) txnData.get("transactionAmount");
-            String amountStr = (String) transactionAmount.get("amount");
-            String currency = (String) transactionAmount.get("currency");
-
-            BigDecimal amount = new BigDecimal(amountStr);
-            Transaction.TransactionType type = amount.compareTo(BigDecimal.ZERO) >= 0 ?
-                    Transaction.TransactionType.CREDIT : Transaction.TransactionType.DEBIT;
-
-            String creditorAccount = null;
-            Map<String, Object> creditorAccountData = (Map<String, Object>) txnData.get("creditorAccount");
-            if (creditorAccountData != null) {
-                creditorAccount = (String) creditorAccountData.get("iban");
-                if (creditorAccount == null) {
-                    creditorAccount = (String) creditorAccountData.get("bban");
-                }
-            }
+    private TransactionPage<Map<String, Object>> getSparsePage(Long userId, int pageSize,
+                                                               LocalDate from, LocalDate to,
+                                                               Transaction.TransactionType type,
+                                                               TransactionCursor position,
+                                                               TransactionFields fields) {
+        List<Map<String, Object>> rows = transactionRepository.findFields(
+                userId,
+                fields.including(CURSOR_FIELDS),
+                FieldFilter.builder()
+                        .startDate(from)
+                        .endDate(to)
+                        .transactionType(type)
+                        .cursorDate(position.transactionDate())
+                        .cursorId(position.id())
+                        .limit(pageSize + 1)
+                        .newestFirst(true)
+                        .build());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Map<String, Object>> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Map<String, Object> last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(
+                    (LocalDate) last.get("transactionDate"), (Long) last.get("id")).encode();
+        }
 
-            String debtorAccount = null;
-            Map<String, Object> debtorAccountData = (Map<String, Object>) txnData.get("debtorAccount");
-            if (debtorAccountData != null) {
-                debtorAccount = (String) debtorAccountData.get("iban");
-                if (debtorAccount == null) {
-                    debtorAccount = (String) debtorAccountData.get("bban");
-                }
-            }
+        return new TransactionPage<>(retainFields(page, fields), nextCursor, hasMore);
+    }
 
-            BigDecimal balanceAfterTransaction = null;
-            Map<String, Object> balanceData = (Map<String, Object>) txnData.get("balanceAfterTransaction");
-            if (balanceData != null) {
-                String balanceStr = (String) balanceData.get("amount");
-                if (balanceStr != null) {
-                    try {
-                        balanceAfterTransaction = new BigDecimal(balanceStr);
-                    } catch (NumberFormatException e) {
-                        logger.warning("Invalid balance amount format: " + balanceStr);
-                        balanceAfterTransaction = null; // or handle with a default value if needed
-                    }
-                }
-            }
+    /**
+     * Ranked search over description, creditor and debtor names. Every word of the query
+     * also matches as a prefix, and near misses are found through trigram similarity.
+     */
+    public TransactionSearchPage<?> searchTransactions(Long userId, String query, int page, Integer size,
+                                                       TransactionFields fields) {
+        int pageSize = size == null ? defaultPageSize : Math.clamp(size, 1, maxPageSize);
+        int pageNumber = Math.max(page, 0);
+
+        List<String> words = SEARCH_WORD_SEPARATOR.splitAsStream(query.toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty())
+                .toList();
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain letters or digits");
+        }
+        String tsQuery = words.stream().map(word -> word + ":*").collect(Collectors.joining(" & "));
+        String term = String.join(" ", words);
+
+        List<Long> ids = transactionRepository.searchIds(
+                userId, tsQuery, term, pageSize + 1, pageNumber * pageSize);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new TransactionSearchPage<>(List.of(), pageNumber, pageSize, false);
+        }
 
-            String bankTransactionCode = (String) txnData.get("bankTransactionCode");
-
-            String proprietaryBankTransactionCode = (String) txnData.get("proprietaryBankTransactionCode");
-
-            return Transaction.builder()
-                    .transactionId((String) txnData.get("transactionId"))
-                    .accountId(accountId)
-                    .bankConnection(connection)
-                    .amount(amount.abs())
-                    .currency(currency)
-                    .description((String) txnData.get("remittanceInformationUnstructured"))
-                    .transactionDate(LocalDate.parse((String) txnData.get("bookingDate"), DateTimeFormatter.ISO_LOCAL_DATE))
-                    .bookingDate(txnData.get("bookingDate") != null ?
-                            LocalDate.parse((String) txnData.get("bookingDate"), DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                    .valueDate(txnData.get("valueDate") != null ?
-                            LocalDate.parse((String) txnData.get("valueDate"), DateTimeFormatter.ISO_LOCAL_DATE) : null)
-                    .creditorName((String) txnData.get("creditorName"))
-                    .debtorName((String) txnData.get("debtorName"))
-                    .creditorAccount(creditorAccount)
-                    .debtorAccount(debtorAccount)
-                    .transactionCode(bankTransactionCode)
-                    .proprietaryBankTransactionCode(proprietaryBankTransactionCode)
-                    .balanceAfterTransaction(balanceAfterTransaction)
-                    .transactionType(type)
-                    .build();
-        } catch (Exception e) {
-            logger.warning("Failed to map transaction data: " + e.getMessage());
-            return null;
+        if (fields != null) {
+            Map<Long, Map<String, Object>> byId = transactionRepository.findFields(
+                            userId, fields.including("id"), FieldFilter.builder().ids(pageIds).build())
+                    .stream()
+                    .collect(Collectors.toMap(row -> (Long) row.get("id"), Function.identity()));
+            List<Map<String, Object>> items = pageIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            return new TransactionSearchPage<>(retainFields(items, fields), pageNumber, pageSize, hasMore);
         }
-    }
 
-    public List<Transaction> getUserTransactions(Long userId) {
-        return transactionRepository.findByUserId(userId);
-    }
+        Map<Long, TransactionDto> byId = transactionRepository.findDtosByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(TransactionDto::id, Function.identity()));
+        List<TransactionDto> items = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
 
-    public List<Transaction> getUserTransactionsByDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+        return new TransactionSearchPage<>(items, pageNumber, pageSize, hasMore);
     }
 
-    public List<Transaction> getUserTransactionsByType(Long userId, Transaction.TransactionType type) {
-        return transactionRepository.findByUserIdAndTransactionType(userId, type);
+    /**
+     * Drops fields that were only selected for internal use.
+     */
+    private static List<Map<String, Object>> retainFields(List<Map<String, Object>> rows, TransactionFields fields) {
+        for (Map<String, Object> row : rows) {
+            row.keySet().retainAll(fields.names());
+        }
+        return rows;
     }
+
+    public record SyncResult(int transactionCount, List<SyncFailure> failures) {}
+
+    public record SyncFailure(String requisitionId, String accountId, String error) {}
 }
\ No newline at end of file
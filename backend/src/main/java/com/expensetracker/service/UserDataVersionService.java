@@ -0,0 +1,41 @@
+package com.expensetracker.service;
+
+import com.expensetracker.repository.UserDataVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.zip.CRC32;
+
+/**
+ * Per-user data version behind the ETags of the list endpoints. Every write that
+ * changes what those endpoints return bumps it within the writer's transaction, so a
+ * client holding the current ETag can be answered with 304 after a single lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserDataVersionService {
+    private final UserDataVersionRepository versionRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(Long userId) {
+        versionRepository.increment(userId);
+    }
+
+    public long current(Long userId) {
+        return versionRepository.findVersionByUserId(userId).orElse(0L);
+    }
+
+    /**
+     * Strong ETag for one representation of the user's data at its current version;
+     * {@code variant} names the endpoint and its parameters.
+     */
+    public String etag(Long userId, String variant) {
+        CRC32 crc = new CRC32();
+        crc.update(variant.getBytes(StandardCharsets.UTF_8));
+        return "\"" + userId + "-" + current(userId) + "-" + HexFormat.of().toHexDigits((int) crc.getValue()) + "\"";
+    }
+}
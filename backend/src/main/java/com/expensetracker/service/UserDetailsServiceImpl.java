@@ -1,5 +1,6 @@
 package com.expensetracker.service;
 
+import com.expensetracker.auth.AuthenticatedUser;
 import com.expensetracker.model.Users;
 import com.expensetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +24,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
         List<SimpleGrantedAuthority> authorities = List.of(
-                new SimpleGrantedAuthority("ROLE_USER")
+                new SimpleGrantedAuthority(AuthenticatedUser.ROLE_USER)
         );
 
         return new org.springframework.security.core.userdetails.User(
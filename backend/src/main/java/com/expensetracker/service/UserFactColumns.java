@@ -0,0 +1,247 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar snapshot of one user's transaction and expense facts. Rows are
+ * sorted by epoch day so a date range maps to a contiguous index range, and string
+ * dimensions are dictionary encoded, so aggregations are plain loops over primitive
+ * arrays.
+ */
+public final class UserFactColumns {
+
+    public enum Dimension { CATEGORY, CURRENCY, MERCHANT }
+
+    public record Group(String key, String currency, long amountMinor, long count) {}
+
+    private static final byte DEBIT = 0;
+    private static final byte CREDIT = 1;
+
+    private final int size;
+    private final int[] epochDays;
+    private final long[] amounts;
+    private final byte[] types;
+    private final int[] categories;
+    private final int[] currencies;
+    private final int[] merchants;
+    private final String[] categoryDictionary;
+    private final String[] currencyDictionary;
+    private final String[] merchantDictionary;
+
+    private UserFactColumns(int size, int[] epochDays, long[] amounts, byte[] types,
+                            int[] categories, int[] currencies, int[] merchants,
+                            String[] categoryDictionary, String[] currencyDictionary, String[] merchantDictionary) {
+        this.size = size;
+        this.epochDays = epochDays;
+        this.amounts = amounts;
+        this.types = types;
+        this.categories = categories;
+        this.currencies = currencies;
+        this.merchants = merchants;
+        this.categoryDictionary = categoryDictionary;
+        this.currencyDictionary = currencyDictionary;
+        this.merchantDictionary = merchantDictionary;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sums amount and count of the matching rows per value of the dimension and currency.
+     * Totals are kept per (value, currency) slot actually seen, so the cost follows the
+     * matched rows rather than the size of the dictionary.
+     */
+    public List<Group> groupBy(Dimension dimension, LocalDate from, LocalDate to,
+                               Transaction.TransactionType type) {
+        int start = lowerBound((int) from.toEpochDay());
+        int end = upperBound((int) to.toEpochDay());
+        byte wanted = type == Transaction.TransactionType.CREDIT ? CREDIT : DEBIT;
+
+        int currencyCount = currencyDictionary.length;
+        int[] keys = column(dimension);
+        String[] dictionary = dictionary(dimension);
+
+        // slot -> {sum, count}
+        Map<Integer, long[]> totals = new HashMap<>();
+        for (int i = start; i < end; i++) {
+            if (types[i] != wanted) {
+                continue;
+            }
+            int slot = dimension == Dimension.CURRENCY ? currencies[i] : keys[i] * currencyCount + currencies[i];
+            long[] total = totals.computeIfAbsent(slot, k -> new long[2]);
+            total[0] += amounts[i];
+            total[1]++;
+        }
+
+        int[] slots = totals.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        List<Group> groups = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            long[] total = totals.get(slot);
+            String currency = currencyDictionary[slot % currencyCount];
+            String key = dimension == Dimension.CURRENCY ? currency : dictionary[slot / currencyCount];
+            groups.add(new Group(key, currency, total[0], total[1]));
+        }
+        return groups;
+    }
+
+    /**
+     * The {@code limit} groups with the largest amount; amounts in different currencies
+     * are compared by their minor-unit value.
+     */
+    public List<Group> top(Dimension dimension, LocalDate from, LocalDate to,
+                           Transaction.TransactionType type, int limit) {
+        return groupBy(dimension, from, to, type).stream()
+                .sorted(Comparator.comparingLong(Group::amountMinor).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Rough retained size, used to weigh cache entries.
+     */
+    public long estimatedBytes() {
+        long bytes = 64L + (long) epochDays.length * (4 + 8 + 1 + 4 + 4 + 4);
+        bytes += dictionaryBytes(categoryDictionary);
+        bytes += dictionaryBytes(currencyDictionary);
+        bytes += dictionaryBytes(merchantDictionary);
+        return bytes;
+    }
+
+    private int lowerBound(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int[] column(Dimension dimension) {
+        return switch (dimension) {
+            case CATEGORY -> categories;
+            case CURRENCY -> currencies;
+            case MERCHANT -> merchants;
+        };
+    }
+
+    private String[] dictionary(Dimension dimension) {
+        return switch (dimension) {
+            case CATEGORY -> categoryDictionary;
+            case CURRENCY -> currencyDictionary;
+            case MERCHANT -> merchantDictionary;
+        };
+    }
+
+    private static long dictionaryBytes(String[] dictionary) {
+        long bytes = 16L + dictionary.length * 8L;
+        for (String value : dictionary) {
+            bytes += 40L + value.length();
+        }
+        return bytes;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private int size;
+        private int[] epochDays = new int[64];
+        private long[] amounts = new long[64];
+        private byte[] types = new byte[64];
+        private int[] categories = new int[64];
+        private int[] currencies = new int[64];
+        private int[] merchants = new int[64];
+        private final Map<String, Integer> categoryIds = new HashMap<>();
+        private final Map<String, Integer> currencyIds = new HashMap<>();
+        private final Map<String, Integer> merchantIds = new HashMap<>();
+
+        Builder add(LocalDate date, long amountMinor, Transaction.TransactionType type,
+                    String category, String currency, String merchant) {
+            if (size == epochDays.length) {
+                int capacity = size * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                types = Arrays.copyOf(types, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                currencies = Arrays.copyOf(currencies, capacity);
+                merchants = Arrays.copyOf(merchants, capacity);
+            }
+            epochDays[size] = (int) date.toEpochDay();
+            amounts[size] = amountMinor;
+            types[size] = type == Transaction.TransactionType.CREDIT ? CREDIT : DEBIT;
+            categories[size] = encode(categoryIds, category);
+            currencies[size] = encode(currencyIds, currency);
+            merchants[size] = encode(merchantIds, merchant);
+            size++;
+            return this;
+        }
+
+        UserFactColumns build() {
+            // Sort rows by day through packed (epochDay, row) longs, avoiding boxed comparators
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = ((long) epochDays[i] << 32) | i;
+            }
+            Arrays.sort(order);
+
+            int[] sortedDays = new int[size];
+            long[] sortedAmounts = new long[size];
+            byte[] sortedTypes = new byte[size];
+            int[] sortedCategories = new int[size];
+            int[] sortedCurrencies = new int[size];
+            int[] sortedMerchants = new int[size];
+            for (int i = 0; i < size; i++) {
+                int row = (int) order[i];
+                sortedDays[i] = epochDays[row];
+                sortedAmounts[i] = amounts[row];
+                sortedTypes[i] = types[row];
+                sortedCategories[i] = categories[row];
+                sortedCurrencies[i] = currencies[row];
+                sortedMerchants[i] = merchants[row];
+            }
+
+            return new UserFactColumns(size, sortedDays, sortedAmounts, sortedTypes,
+                    sortedCategories, sortedCurrencies, sortedMerchants,
+                    decode(categoryIds), decode(currencyIds), decode(merchantIds));
+        }
+
+        private static int encode(Map<String, Integer> ids, String value) {
+            return ids.computeIfAbsent(value != null ? value : "", v -> ids.size());
+        }
+
+        private static String[] decode(Map<String, Integer> ids) {
+            String[] dictionary = new String[ids.size()];
+            ids.forEach((value, id) -> dictionary[id] = value);
+            return dictionary;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+-- Schema as previously generated by Hibernate ddl-auto. Existing databases are
+-- baselined at version 0 (spring.flyway.baseline-on-migrate) and still run this
+-- script, so every statement tolerates objects that ddl-auto already created and
+-- adds what the older schema lacks.
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username      VARCHAR(50)   NOT NULL UNIQUE,
+    email         VARCHAR(20)   NOT NULL UNIQUE,
+    password      VARCHAR(255)  NOT NULL,
+    refresh_token VARCHAR(1000),
+    created_at    TIMESTAMP(6)  NOT NULL,
+    updated_at    TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS bank_connections (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    requisition_id    VARCHAR(255) NOT NULL UNIQUE,
+    user_id           BIGINT       NOT NULL,
+    institution_id    VARCHAR(255) NOT NULL,
+    institution_name  VARCHAR(255) NOT NULL,
+    reference         VARCHAR(255) NOT NULL,
+    last_synced_at    TIMESTAMP(6),
+    last_attempted_at TIMESTAMP(6),
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    CONSTRAINT fk_bank_connection_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+ALTER TABLE bank_connections ADD COLUMN IF NOT EXISTS last_synced_at TIMESTAMP(6);
+ALTER TABLE bank_connections ADD COLUMN IF NOT EXISTS last_attempted_at TIMESTAMP(6);
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id                                BIGINT         NOT NULL PRIMARY KEY,
+    transaction_id                    VARCHAR(255)   NOT NULL UNIQUE,
+    account_id                        VARCHAR(255)   NOT NULL,
+    bank_connection_id                BIGINT         NOT NULL,
+    amount                            NUMERIC(19, 2) NOT NULL,
+    currency                          VARCHAR(3)     NOT NULL,
+    description                       VARCHAR(500),
+    transaction_date                  DATE           NOT NULL,
+    booking_date                      DATE,
+    value_date                        DATE,
+    creditor_name                     VARCHAR(255),
+    debtor_name                       VARCHAR(255),
+    creditor_account                  VARCHAR(255),
+    debtor_account                    VARCHAR(255),
+    transaction_code                  VARCHAR(50),
+    proprietary_bank_transaction_code VARCHAR(50),
+    balance_after_transaction         NUMERIC(19, 2),
+    transaction_type                  VARCHAR(255)   NOT NULL CHECK (transaction_type IN ('DEBIT', 'CREDIT')),
+    created_at                        TIMESTAMP(6)   NOT NULL,
+    updated_at                        TIMESTAMP(6),
+    CONSTRAINT fk_transaction_bank_connection FOREIGN KEY (bank_connection_id) REFERENCES bank_connections (id)
+);
+
+-- ddl-auto created transactions.id as an identity column; ids now come from
+-- transactions_seq (moved past existing ids in V2)
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category            VARCHAR(255) CHECK (category IN ('FOOD', 'TRANSPORTATION', 'UTILITIES', 'ENTERTAINMENT',
+                                                         'HEALTHCARE', 'SHOPPING', 'TRAVEL', 'OTHER')),
+    user_id             BIGINT       NOT NULL,
+    amount              BIGINT       NOT NULL,
+    description         VARCHAR(255) NOT NULL,
+    date                TIMESTAMP(6) NOT NULL,
+    bank_transaction_id VARCHAR(255) UNIQUE,
+    source              VARCHAR(255) CHECK (source IN ('MANUAL', 'BANK_SYNC', 'RECEIPT_OCR')),
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6),
+    CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS account_sync_cursors (
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bank_connection_id        BIGINT       NOT NULL,
+    account_id                VARCHAR(255) NOT NULL,
+    last_booked_date          DATE,
+    last_synced_at            TIMESTAMP(6),
+    last_seen_transaction_ids TEXT,
+    created_at                TIMESTAMP(6) NOT NULL,
+    updated_at                TIMESTAMP(6),
+    CONSTRAINT uk_account_sync_cursor_connection_account UNIQUE (bank_connection_id, account_id),
+    CONSTRAINT fk_account_sync_cursor_bank_connection FOREIGN KEY (bank_connection_id) REFERENCES bank_connections (id)
+);
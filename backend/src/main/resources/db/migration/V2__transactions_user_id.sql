@@ -0,0 +1,35 @@
+-- Denormalize the owning user onto transactions so user-scoped reads no longer
+-- join through bank_connections, and index the hot list/filter access paths.
+
+ALTER TABLE transactions ADD COLUMN user_id BIGINT;
+
+UPDATE transactions t
+SET user_id = bc.user_id
+FROM bank_connections bc
+WHERE bc.id = t.bank_connection_id;
+
+ALTER TABLE transactions ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+-- Listing, keyset pages and date-range filters: ORDER BY transaction_date DESC, id DESC
+CREATE INDEX idx_transactions_user_date_id
+    ON transactions (user_id, transaction_date DESC, id DESC);
+
+-- Type filter, optionally combined with a date range
+CREATE INDEX idx_transactions_user_type_date
+    ON transactions (user_id, transaction_type, transaction_date DESC, id DESC);
+
+CREATE INDEX idx_transactions_bank_connection
+    ON transactions (bank_connection_id);
+
+-- Sync lookups of a user's linked connections (status lives in institution_name)
+CREATE INDEX idx_bank_connections_user_status
+    ON bank_connections (user_id, institution_name);
+
+CREATE INDEX idx_expenses_user_date
+    ON expenses (user_id, date);
+
+-- Databases created by ddl-auto may hold ids assigned before the sequence existed;
+-- move the sequence past them so the next id is free.
+SELECT setval('transactions_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 1, false);
@@ -0,0 +1,53 @@
+-- Pre-aggregated spending per user, period, source, category, currency and type.
+-- Maintained incrementally in the same transaction as transaction ingestion and
+-- expense writes; dashboards read these instead of scanning the raw tables.
+
+CREATE TABLE spending_rollup_daily (
+    user_id          BIGINT         NOT NULL,
+    period_start     DATE           NOT NULL,
+    source           VARCHAR(16)    NOT NULL,
+    category         VARCHAR(32)    NOT NULL,
+    currency         VARCHAR(3)     NOT NULL,
+    transaction_type VARCHAR(16)    NOT NULL,
+    total_amount     NUMERIC(19, 2) NOT NULL,
+    entry_count      BIGINT         NOT NULL,
+    CONSTRAINT pk_spending_rollup_daily
+        PRIMARY KEY (user_id, period_start, source, category, currency, transaction_type),
+    CONSTRAINT fk_spending_rollup_daily_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE spending_rollup_monthly (
+    user_id          BIGINT         NOT NULL,
+    period_start     DATE           NOT NULL,
+    source           VARCHAR(16)    NOT NULL,
+    category         VARCHAR(32)    NOT NULL,
+    currency         VARCHAR(3)     NOT NULL,
+    transaction_type VARCHAR(16)    NOT NULL,
+    total_amount     NUMERIC(19, 2) NOT NULL,
+    entry_count      BIGINT         NOT NULL,
+    CONSTRAINT pk_spending_rollup_monthly
+        PRIMARY KEY (user_id, period_start, source, category, currency, transaction_type),
+    CONSTRAINT fk_spending_rollup_monthly_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Backfill from existing rows. Bank transactions carry no category; expenses are
+-- stored in minor units of expenses.currency (bound to the expensesCurrency
+-- placeholder, as SpendingRollupService does for live writes), as debits.
+
+INSERT INTO spending_rollup_daily
+SELECT user_id, transaction_date, 'TRANSACTION', 'UNCATEGORIZED', currency, transaction_type,
+       SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, transaction_date, currency, transaction_type;
+
+INSERT INTO spending_rollup_daily
+SELECT user_id, CAST(date AS DATE), 'EXPENSE', COALESCE(category, 'UNCATEGORIZED'), '${expensesCurrency}', 'DEBIT',
+       SUM(amount) / 100.0, COUNT(*)
+FROM expenses
+GROUP BY user_id, CAST(date AS DATE), COALESCE(category, 'UNCATEGORIZED');
+
+INSERT INTO spending_rollup_monthly
+SELECT user_id, CAST(date_trunc('month', period_start) AS DATE), source, category, currency, transaction_type,
+       SUM(total_amount), SUM(entry_count)
+FROM spending_rollup_daily
+GROUP BY user_id, CAST(date_trunc('month', period_start) AS DATE), source, category, currency, transaction_type;
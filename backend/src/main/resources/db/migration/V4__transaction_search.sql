@@ -0,0 +1,20 @@
+-- Search over description and counterparties. search_vector serves ranked word and
+-- prefix matches; search_text with trigrams serves typo-tolerant matches. Both are
+-- generated columns, so ingestion keeps them current without extra writes.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE transactions
+    ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+        lower(coalesce(creditor_name, '') || ' ' || coalesce(debtor_name, '') || ' ' || coalesce(description, ''))
+    ) STORED;
+
+ALTER TABLE transactions
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(creditor_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(debtor_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_transactions_search_vector ON transactions USING GIN (search_vector);
+CREATE INDEX idx_transactions_search_text_trgm ON transactions USING GIN (search_text gin_trgm_ops);
@@ -0,0 +1,8 @@
+-- Monotonic per-user counter bumped by every write that changes what the list
+-- endpoints return; used to derive ETags for conditional GETs.
+
+CREATE TABLE user_data_versions (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    version BIGINT NOT NULL,
+    CONSTRAINT fk_user_data_version_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,19 @@
+-- Refresh tokens are opaque random strings; only their SHA-256 hash is stored.
+-- Every login starts a family, every refresh rotates within it, and presenting an
+-- already rotated token revokes the whole family.
+
+CREATE TABLE refresh_tokens (
+    token_hash VARCHAR(64) NOT NULL PRIMARY KEY,
+    user_id    BIGINT      NOT NULL,
+    family_id  UUID        NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    rotated_at TIMESTAMPTZ,
+    revoked_at TIMESTAMPTZ,
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+ALTER TABLE users DROP COLUMN refresh_token;
@@ -0,0 +1,90 @@
+package com.expensetracker.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, Duration.ofMinutes(1), 1_000);
+
+    @Test
+    void rejectsOnceTheWindowIsFullAndSaysWhenToRetry() {
+        assertThat(limiter.tryAcquire("ip:1", 0)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", 0)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", 0)).isZero();
+
+        // Next window starts at 60s; the three requests have decayed to two by 80s
+        assertThat(limiter.tryAcquire("ip:1", 0)).isEqualTo(80_000);
+        assertThat(limiter.tryAcquire("ip:1", 80_000)).isZero();
+    }
+
+    @Test
+    void weighsThePreviousWindowByItsRemainingOverlap() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip:1", 0);
+        }
+
+        // Half way into the next window the previous three count as 1.5
+        assertThat(limiter.tryAcquire("ip:1", MINUTE + 30_000)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", MINUTE + 30_000)).isEqualTo(10_000);
+        assertThat(limiter.tryAcquire("ip:1", MINUTE + 40_000)).isZero();
+    }
+
+    @Test
+    void countsKeysIndependently() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("user:1", 0);
+        }
+
+        assertThat(limiter.tryAcquire("user:1", 0)).isPositive();
+        assertThat(limiter.tryAcquire("user:2", 0)).isZero();
+    }
+
+    @Test
+    void forgetsRequestsTwoWindowsBack() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip:1", 0);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("ip:1", 2 * MINUTE)).isZero();
+        }
+    }
+
+    @Test
+    void rejectsNewKeysWhileTheKeyBudgetIsFull() {
+        SlidingWindowRateLimiter small = new SlidingWindowRateLimiter(3, Duration.ofMinutes(1), 64);
+
+        long rejected = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (small.tryAcquire("ip:" + i, 0) > 0) {
+                rejected++;
+            }
+        }
+        assertThat(small.size()).isLessThanOrEqualTo(64);
+        assertThat(rejected).isEqualTo(10_000 - small.size());
+        assertThat(small.tryAcquire("ip:new", 10_000)).isEqualTo(2 * MINUTE - 10_000);
+        // Keys of the first window still count during the second, so no room yet
+        assertThat(small.tryAcquire("ip:new", MINUTE + 5_000)).isEqualTo(MINUTE - 5_000);
+        assertThat(small.tryAcquire("ip:new", 2 * MINUTE)).isZero();
+    }
+
+    @Test
+    void sweepsStaleKeysToMakeRoomForNewOnes() {
+        SlidingWindowRateLimiter small = new SlidingWindowRateLimiter(3, Duration.ofMinutes(1), 64);
+        for (int i = 0; i < 10_000; i++) {
+            small.tryAcquire("ip:" + i, 0);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            small.tryAcquire("user:" + i, 2 * MINUTE);
+        }
+        assertThat(small.size()).isLessThanOrEqualTo(64);
+        assertThat(small.tryAcquire("user:0", 2 * MINUTE)).isZero();
+    }
+}
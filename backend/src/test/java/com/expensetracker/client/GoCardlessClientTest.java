@@ -0,0 +1,149 @@
+package com.expensetracker.client;
+
+import com.expensetracker.service.GoCardlessAuthService;
+import com.expensetracker.service.SyncConcurrencyLimiter;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GoCardlessClientTest {
+
+    private final Queue<StubResponse> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HttpServer server;
+    private GoCardlessClient client;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            StubResponse stub = responses.remove();
+            stub.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            byte[] body = stub.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(stub.status(), body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        GoCardlessAuthService authService = mock(GoCardlessAuthService.class);
+        when(authService.getAccessToken()).thenReturn("test-token");
+        ObjectProvider<GoCardlessAuthService> authServiceProvider = mock(ObjectProvider.class);
+        when(authServiceProvider.getObject()).thenReturn(authService);
+
+        client = new GoCardlessClient(
+                new RestTemplate(),
+                new RateLimitBudgetTracker(),
+                authServiceProvider,
+                new SyncConcurrencyLimiter(4, 2),
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                3,
+                Duration.ofMillis(10),
+                Duration.ofSeconds(1)
+        );
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesThrottledCallAfterRetryAfter() {
+        responses.add(new StubResponse(429, Map.of("Retry-After", "0"), ""));
+        responses.add(new StubResponse(200, Map.of(), "{\"accounts\":[\"acc-1\"]}"));
+
+        Map<?, ?> requisition = client.get("/requisitions/req-1/", Map.class);
+
+        assertThat(requisition.get("accounts")).isEqualTo(List.of("acc-1"));
+        assertThat(requestCount).hasValue(2);
+    }
+
+    @Test
+    void retriesServerErrorsOnGet() {
+        responses.add(new StubResponse(503, Map.of(), ""));
+        responses.add(new StubResponse(200, Map.of(), "{\"id\":\"bank\"}"));
+
+        Map<?, ?> institution = client.get("/institutions/bank/", Map.class);
+
+        assertThat(institution.get("id")).isEqualTo("bank");
+        assertThat(requestCount).hasValue(2);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        responses.add(new StubResponse(404, Map.of(), "{\"summary\":\"Not found\"}"));
+
+        assertThatThrownBy(() -> client.get("/institutions/missing/", Map.class))
+                .isInstanceOf(HttpClientErrorException.NotFound.class);
+        assertThat(requestCount).hasValue(1);
+    }
+
+    @Test
+    void doesNotRetryUnreadableResponseBodies() {
+        responses.add(new StubResponse(200, Map.of(), "{\"transactions\":"));
+
+        assertThatThrownBy(() -> client.getForAccount("acc-1", "transactions",
+                "/accounts/acc-1/transactions/", response -> {
+                    throw new IOException("Unexpected end of input");
+                }))
+                .isInstanceOf(RestClientException.class)
+                .isNotInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThat(requestCount).hasValue(1);
+    }
+
+    @Test
+    void defersAccountOnceItsDailyBudgetIsExhausted() {
+        responses.add(new StubResponse(429, Map.of(
+                "HTTP_X_RATELIMIT_ACCOUNT_SUCCESS_REMAINING", "0",
+                "HTTP_X_RATELIMIT_ACCOUNT_SUCCESS_RESET", "3600"
+        ), ""));
+
+        assertThatThrownBy(() -> client.getForAccount("acc-1", "transactions",
+                "/accounts/acc-1/transactions/", response -> "unused"))
+                .isInstanceOf(RateLimitExhaustedException.class);
+        assertThatThrownBy(() -> client.getForAccount("acc-1", "transactions",
+                "/accounts/acc-1/transactions/", response -> "unused"))
+                .isInstanceOf(RateLimitExhaustedException.class);
+        assertThat(requestCount).hasValue(1);
+    }
+
+    @Test
+    void keysEndpointBudgetsByPathTemplate() {
+        assertThat(GoCardlessClient.endpointOf("/accounts/{accountId}/transactions/?date_from={dateFrom}"))
+                .isEqualTo("accounts/*/transactions");
+        assertThat(GoCardlessClient.endpointOf("/accounts/{accountId}/details/"))
+                .isEqualTo("accounts/*/details");
+        assertThat(GoCardlessClient.endpointOf("/institutions/?country={country}"))
+                .isEqualTo("institutions");
+    }
+
+    private record StubResponse(int status, Map<String, String> headers, String body) {}
+}
@@ -0,0 +1,120 @@
+package com.expensetracker.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoCardlessTransactionParserTest {
+
+    private final GoCardlessTransactionParser parser = new GoCardlessTransactionParser(new ObjectMapper());
+
+    @Test
+    void readsBookedAndPendingRows() throws IOException {
+        List<BankTransaction> rows = parse("""
+                {"transactions": {
+                  "booked": [{
+                    "transactionId": "tx-1",
+                    "bookingDate": "2024-03-01",
+                    "valueDate": "2024-02-29",
+                    "transactionAmount": {"amount": "-12.50", "currency": "EUR"},
+                    "remittanceInformationUnstructured": "Bakery",
+                    "creditorName": "Bakery Ltd",
+                    "creditorAccount": {"iban": "DE89370400440532013000"},
+                    "debtorAccount": {"bban": "0532013000"},
+                    "balanceAfterTransaction": {"balanceAmount": {"amount": "87.50", "currency": "EUR"}}
+                  }],
+                  "pending": [{
+                    "transactionId": "tx-2",
+                    "valueDate": "2024-03-02",
+                    "transactionAmount": {"amount": "5.00", "currency": "EUR"}
+                  }]
+                }}
+                """);
+
+        assertThat(rows).hasSize(2);
+        BankTransaction booked = rows.get(0);
+        assertThat(booked.transactionId()).isEqualTo("tx-1");
+        assertThat(booked.booked()).isTrue();
+        assertThat(booked.amount()).isEqualByComparingTo("-12.50");
+        assertThat(booked.currency()).isEqualTo("EUR");
+        assertThat(booked.description()).isEqualTo("Bakery");
+        assertThat(booked.bookingDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(booked.valueDate()).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(booked.creditorName()).isEqualTo("Bakery Ltd");
+        assertThat(booked.creditorAccount()).isEqualTo("DE89370400440532013000");
+        assertThat(booked.debtorAccount()).isEqualTo("0532013000");
+        assertThat(booked.balanceAfterTransaction()).isEqualByComparingTo(new BigDecimal("87.50"));
+
+        BankTransaction pending = rows.get(1);
+        assertThat(pending.transactionId()).isEqualTo("tx-2");
+        assertThat(pending.booked()).isFalse();
+        assertThat(pending.bookingDate()).isNull();
+    }
+
+    @Test
+    void skipsUnknownAndNestedFields() throws IOException {
+        List<BankTransaction> rows = parse("""
+                {"meta": {"links": [{"href": "x"}], "transactions": {"booked": [{"transactionId": "decoy"}]}},
+                 "transactions": {
+                   "information": [{"transactionId": "ignored"}],
+                   "booked": [{
+                     "transactionId": "tx-1",
+                     "bookingDate": "2024-03-01",
+                     "entryReference": {"nested": {"deeper": [1, 2, {"transactionId": "inner"}]}},
+                     "transactionAmount": {"amount": "1.00", "currency": "EUR", "extra": {"a": 1}},
+                     "remittanceInformationStructuredArray": ["a", "b"]
+                   }]
+                 },
+                 "trailer": [1, 2, 3]}
+                """);
+
+        assertThat(rows).extracting(BankTransaction::transactionId).containsExactly("tx-1");
+        assertThat(rows.get(0).amount()).isEqualByComparingTo("1.00");
+    }
+
+    @Test
+    void skipsRowsWithMissingOrInvalidAmountWithoutAbortingTheStream() throws IOException {
+        List<BankTransaction> rows = parse("""
+                {"transactions": {"booked": [
+                  {"transactionId": "no-amount", "bookingDate": "2024-03-01"},
+                  {"transactionId": "bad-amount", "bookingDate": "2024-03-01",
+                   "transactionAmount": {"amount": "twelve", "currency": "EUR"}},
+                  {"transactionId": "amount-not-object", "bookingDate": "2024-03-01", "transactionAmount": "1.00"},
+                  {"transactionId": "ok", "bookingDate": "2024-03-01",
+                   "transactionAmount": {"amount": "3.00", "currency": "EUR"}}
+                ]}}
+                """);
+
+        assertThat(rows).extracting(BankTransaction::transactionId).containsExactly("ok");
+    }
+
+    @Test
+    void yieldsNothingWithoutTransactionsObject() throws IOException {
+        assertThat(parse("{\"status\": \"ok\", \"transactions\": null}")).isEmpty();
+        assertThat(parse("{}")).isEmpty();
+    }
+
+    @Test
+    void rejectsDocumentsThatAreNotObjects() {
+        assertThatThrownBy(() -> parse("[{\"transactionId\": \"tx-1\"}]"))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Expected a transactions document");
+    }
+
+    private List<BankTransaction> parse(String json) throws IOException {
+        List<BankTransaction> rows = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), rows::add);
+        return rows;
+    }
+}
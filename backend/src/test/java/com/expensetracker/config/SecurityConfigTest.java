@@ -0,0 +1,126 @@
+package com.expensetracker.config;
+
+import com.expensetracker.auth.AuthenticatedUser;
+import com.expensetracker.auth.AuthenticatedUserArgumentResolver;
+import com.expensetracker.auth.JwtAuthEntryPoint;
+import com.expensetracker.auth.JwtService;
+import com.expensetracker.auth.TokenRevocations;
+import com.expensetracker.auth.VerifiedToken;
+import com.expensetracker.controller.TransactionController;
+import com.expensetracker.service.ExportService;
+import com.expensetracker.service.SyncJob;
+import com.expensetracker.service.SyncJobService;
+import com.expensetracker.service.TransactionService;
+import com.expensetracker.service.UserDataVersionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(SecurityConfigTest.TestConfig.class)
+@TestPropertySource(properties = "security.password.bcrypt-strength=4")
+class SecurityConfigTest {
+
+    private static final String TOKEN = "access-token";
+
+    @MockitoBean
+    private JwtService jwtService;
+    @MockitoBean
+    private TokenRevocations tokenRevocations;
+    @MockitoBean
+    private TransactionService transactionService;
+    @MockitoBean
+    private SyncJobService syncJobService;
+    @MockitoBean
+    private ExportService exportService;
+    @MockitoBean
+    private UserDataVersionService dataVersionService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        when(jwtService.verify(TOKEN)).thenReturn(Optional.of(new VerifiedToken(
+                "alice", 1L, List.of(AuthenticatedUser.ROLE_USER), UUID.randomUUID(),
+                Instant.now(), Instant.now().plusSeconds(60))));
+    }
+
+    @Test
+    void completesSseResponsesOnTheAsyncDispatch() throws Exception {
+        SyncJob job = new SyncJob(1L);
+        SseEmitter emitter = new SseEmitter();
+        when(syncJobService.find(job.getId(), 1L)).thenReturn(Optional.of(job));
+        when(syncJobService.subscribe(any())).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/transactions/sync/{jobId}/events", job.getId())
+                        .header("Authorization", "Bearer " + TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("progress").data("done"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("event:progress\ndata:done\n\n"));
+    }
+
+    @Test
+    void stillRejectsRequestsWithoutToken() throws Exception {
+        mockMvc.perform(get("/api/transactions/sync/{jobId}/events", "job"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({SecurityConfig.class, JwtAuthEntryPoint.class, TransactionController.class})
+    static class TestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        WebMvcConfigurer authenticatedUserResolver() {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                    resolvers.add(new AuthenticatedUserArgumentResolver());
+                }
+            };
+        }
+    }
+}
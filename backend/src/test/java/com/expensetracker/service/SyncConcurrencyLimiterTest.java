@@ -0,0 +1,89 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncConcurrencyLimiterTest {
+
+    private final SyncConcurrencyLimiter limiter = new SyncConcurrencyLimiter(4, 1);
+
+    @Test
+    void forgetsUsersOnceTheirCallsComplete() throws Exception {
+        for (long userId = 0; userId < 1_000; userId++) {
+            assertThat(limiter.call(userId, () -> "ok")).isEqualTo("ok");
+        }
+
+        assertThat(limiter.trackedUsers()).isZero();
+    }
+
+    @Test
+    void forgetsUsersWhoseCallFailed() {
+        assertThatThrownBy(() -> limiter.call(1L, () -> {
+            throw new IllegalStateException("upstream down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(limiter.trackedUsers()).isZero();
+    }
+
+    @Test
+    void keepsTheUserWhileACallIsWaiting() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> limiter.call(1L, () -> {
+                running.countDown();
+                release.await();
+                return "first";
+            }));
+            running.await();
+            Future<String> second = executor.submit(() -> limiter.call(1L, () -> "second"));
+
+            // The second call queues on the user's single permit
+            Thread.sleep(50);
+            assertThat(second).isNotDone();
+            assertThat(limiter.trackedUsers()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+            assertThat(limiter.trackedUsers()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void handsBackPermitsWhileBackingOff() throws Exception {
+        CountDownLatch backingOff = new CountDownLatch(1);
+        CountDownLatch othersDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> throttled = executor.submit(() -> limiter.call(1L, () -> {
+                backingOff.countDown();
+                limiter.sleepWithoutPermits(Duration.ofMillis(200));
+                return othersDone.getCount() == 0 ? "after other" : "before other";
+            }));
+            backingOff.await();
+            Future<String> other = executor.submit(() -> limiter.call(1L, () -> {
+                othersDone.countDown();
+                return "other";
+            }));
+
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("other");
+            assertThat(throttled.get(5, TimeUnit.SECONDS)).isEqualTo("after other");
+            assertThat(limiter.trackedUsers()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserFactColumnsTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    private final UserFactColumns columns = UserFactColumns.builder()
+            .add(JAN_1.plusDays(10), 2_500, TransactionType.DEBIT, "FOOD", "EUR", "Bakery")
+            .add(JAN_1, 1_000, TransactionType.DEBIT, "FOOD", "EUR", "Grocer")
+            .add(JAN_1.plusDays(5), 50_000, TransactionType.CREDIT, "UNCATEGORIZED", "EUR", "Employer")
+            .add(JAN_1.plusDays(5), 4_000, TransactionType.DEBIT, "TRAVEL", "USD", "Airline")
+            .add(JAN_1.plusDays(40), 700, TransactionType.DEBIT, "FOOD", "EUR", "Bakery")
+            .build();
+
+    @Test
+    void sumsPerCurrencyWithinInclusiveDateRange() {
+        List<UserFactColumns.Group> totals = columns.groupBy(
+                UserFactColumns.Dimension.CURRENCY, JAN_1, JAN_1.plusDays(10), TransactionType.DEBIT);
+
+        assertThat(totals).containsExactlyInAnyOrder(
+                new UserFactColumns.Group("EUR", "EUR", 3_500, 2),
+                new UserFactColumns.Group("USD", "USD", 4_000, 1));
+    }
+
+    @Test
+    void groupsByCategoryAndFiltersOnType() {
+        List<UserFactColumns.Group> groups = columns.groupBy(
+                UserFactColumns.Dimension.CATEGORY, JAN_1, JAN_1.plusDays(60), TransactionType.CREDIT);
+
+        assertThat(groups).containsExactly(new UserFactColumns.Group("UNCATEGORIZED", "EUR", 50_000, 1));
+    }
+
+    @Test
+    void returnsLargestGroupsFirst() {
+        List<UserFactColumns.Group> top = columns.top(
+                UserFactColumns.Dimension.MERCHANT, JAN_1, JAN_1.plusDays(60), TransactionType.DEBIT, 2);
+
+        assertThat(top).containsExactly(
+                new UserFactColumns.Group("Airline", "USD", 4_000, 1),
+                new UserFactColumns.Group("Bakery", "EUR", 3_200, 2));
+    }
+
+    @Test
+    void emptyRangeYieldsNoGroups() {
+        assertThat(columns.groupBy(UserFactColumns.Dimension.CATEGORY,
+                JAN_1.minusDays(30), JAN_1.minusDays(1), TransactionType.DEBIT)).isEmpty();
+    }
+}